@@ -0,0 +1,56 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.animation.AnimationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replacing {animation:id} placeholders with the current frames
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AnimationBenchmark {
+
+    private static final String ANIMATED = "{animation:rainbow} &7Welcome to {animation:server} &7- {animation:rainbow:2}";
+    private static final String PLAIN = "&7Welcome to the server, [player_name]!";
+
+    private int calls = 0;
+
+    @Setup
+    public void setup() {
+        Stubs.install();
+        AnimationManager.register(new AnimationManager.Animation("rainbow",
+                Arrays.asList("&cS", "&6S", "&eS", "&aS", "&bS", "&9S", "&dS"), AnimationManager.AnimationType.LOOP, 1));
+        AnimationManager.register(new AnimationManager.Animation("server",
+                Arrays.asList("&fPlay", "&ePlay", "&6Play"), AnimationManager.AnimationType.REVERSE_LOOP, 2));
+    }
+
+    @Benchmark
+    public String animated() {
+        // Move the frames along now and then, like the animation interval does
+        if ((++calls & 1023) == 0) {
+            AnimationManager.tick();
+        }
+        return AnimationManager.processAnimations(ANIMATED);
+    }
+
+    @Benchmark
+    public String withoutAnimations() {
+        return AnimationManager.processAnimations(PLAIN);
+    }
+}
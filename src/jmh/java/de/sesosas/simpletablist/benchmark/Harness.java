@@ -0,0 +1,176 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.SimpleTabList;
+import de.sesosas.simpletablist.animation.AnimationManager;
+import de.sesosas.simpletablist.api.classes.AInterval;
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.api.scheduler.VirtualScheduler;
+import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.api.utils.TickDriver;
+import de.sesosas.simpletablist.api.utils.TickWatchdog;
+import de.sesosas.simpletablist.cache.OnlineCounter;
+import de.sesosas.simpletablist.classes.ScoreboardClass;
+import de.sesosas.simpletablist.classes.scoreboard.NamesClass;
+import de.sesosas.simpletablist.classes.scoreboard.SidebarClass;
+import de.sesosas.simpletablist.config.CurrentConfig;
+import de.sesosas.simpletablist.config.SidebarConfig;
+import de.sesosas.simpletablist.interval.AnimatedText;
+import de.sesosas.simpletablist.interval.SidebarInterval;
+import de.sesosas.simpletablist.placeholder.PlaceholderCache;
+import de.sesosas.simpletablist.placeholder.PlaceholderWorker;
+import de.sesosas.simpletablist.render.RenderMemo;
+import de.sesosas.simpletablist.render.RenderPipeline;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Starts and stops the plugin against the stubs for the simulations, and measures them
+ */
+final class Harness {
+
+    private Harness() {
+    }
+
+    /**
+     * Read config.yml from the data folder, completed with the plugin's defaults, and use it.
+     * A missing file is created with the defaults and refreshes enabled, without them nothing happens between
+     * full updates.
+     */
+    static YamlConfiguration loadConfig(File dataFolder) throws IOException {
+        File file = new File(dataFolder, "config.yml");
+        YamlConfiguration config = new YamlConfiguration();
+        if (file.exists()) {
+            config = YamlConfiguration.loadConfiguration(file);
+        } else {
+            config.set("Tab.Refresh.Interval.Enable", true);
+        }
+        SimpleTabList.addDefaults(config);
+
+        dataFolder.mkdirs();
+        config.save(file);
+        CurrentConfig.use(config);
+        return config;
+    }
+
+    /**
+     * Start everything the plugin starts in onEnable, in the same order, on a virtual scheduler.
+     * The server's worlds, players and LuckPerms have to be set up before.
+     */
+    static VirtualScheduler start(YamlConfiguration config, File dataFolder) {
+        VirtualScheduler scheduler = Schedulers.useVirtual();
+        Plugin plugin = Stubs.plugin(config, dataFolder);
+
+        ThreadUtil.initialize(plugin);
+        NamesClass.initScoreboard();
+        RenderPipeline.initialize();
+        PlaceholderWorker.loadConfig();
+        PlaceholderCache.loadConfig();
+        SidebarConfig.loadConfig(dataFolder);
+        AnimationManager.initialize(dataFolder);
+        OnlineCounter.rebuild();
+        SidebarClass.initialize();
+
+        new AnimatedText();
+        new SidebarInterval();
+        TickDriver.start(plugin);
+        // Intervals run on the TickDriver and do not use the plugin
+        AInterval.startAllIntervals(null);
+        return scheduler;
+    }
+
+    /**
+     * Run the initial update the plugin runs a second after enabling, and the renders it queued
+     */
+    static void initialUpdate(VirtualScheduler scheduler) throws InterruptedException {
+        ScoreboardClass.Update();
+        scheduler.advance(20);
+        awaitRenders(scheduler);
+    }
+
+    /**
+     * Advance until the renders in flight on the render threads are applied
+     */
+    static void awaitRenders(VirtualScheduler scheduler) throws InterruptedException {
+        for (int i = 0; i < 200 && (RenderPipeline.isInFlight() || RenderPipeline.getQueueSize() > 0); i++) {
+            Thread.sleep(5);
+            scheduler.advance(1);
+        }
+    }
+
+    /**
+     * Advance one tick, waiting out the rest of the 50 ms like a server when pacing
+     * @return Nanoseconds the tick took, without the wait
+     */
+    static long tick(VirtualScheduler scheduler, long started, boolean pacing) throws InterruptedException {
+        scheduler.advance(1);
+        long nanos = System.nanoTime() - started;
+
+        if (pacing) {
+            long sleep = 50_000_000L - nanos;
+            if (sleep > 0) {
+                Thread.sleep(sleep / 1_000_000L, (int) (sleep % 1_000_000L));
+            }
+        }
+        return nanos;
+    }
+
+    static void stop() {
+        AInterval.stopAllIntervals();
+        TickDriver.stop();
+        RenderPipeline.shutdown();
+        ThreadUtil.shutdown();
+    }
+
+    /**
+     * Bytes allocated by all live threads so far, render and worker threads included
+     */
+    static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+
+        long total = 0;
+        for (long allocated : ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Print the main thread time per tick, the updates sent and the memory allocated per player
+     */
+    static void report(long[] tickNanos, long updates, long allocated, int players, YamlConfiguration config) {
+        int ticks = tickNanos.length;
+        long[] sorted = tickNanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long nanos : tickNanos) {
+            total += nanos;
+        }
+
+        double seconds = ticks / 20.0;
+        players = Math.max(1, players);
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Main thread:  %.3f ms/tick average, %.3f ms p95, %.3f ms max%n",
+                total / (double) ticks / 1e6, sorted[(int) Math.min(ticks - 1, Math.ceil(ticks * 0.95) - 1)] / 1e6,
+                sorted[ticks - 1] / 1e6);
+        System.out.printf(Locale.ROOT, "Updates sent: %d (%.2f per player per second)%n",
+                updates, updates / (double) players / seconds);
+        System.out.printf(Locale.ROOT, "Allocated:    %.1f MB (%.1f KB per player, %.0f bytes per player per tick)%n",
+                allocated / 1048576.0, allocated / 1024.0 / players, allocated / (double) players / ticks);
+        System.out.printf(Locale.ROOT, "Teams:        %d on the main scoreboard (sorting %s)%n",
+                Stubs.mainScoreboard().size(), config.getBoolean("Names.Sorting.Enable") ? "on" : "off");
+        System.out.printf(Locale.ROOT, "Render:       memo %d%% hit rate, %d players still queued, refresh quality %s%n",
+                RenderMemo.getHitRate(), RenderPipeline.getQueueSize(), TickWatchdog.getLevel());
+    }
+}
@@ -0,0 +1,139 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.api.scheduler.VirtualScheduler;
+import de.sesosas.simpletablist.classes.ScoreboardClass;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs the plugin's update pipeline against stub players for a number of ticks and reports the main thread time
+ * per tick, the updates sent and the memory allocated per player. Players are spread evenly over the worlds and
+ * LuckPerms groups. Configuration comes from config.yml, sidebar.yml and animations.yml in the data folder,
+ * files that do not exist are created with the plugin's defaults.
+ * <p>
+ * Run with: mvn -P jmh verify -Djmh.main=de.sesosas.simpletablist.benchmark.LoadSimulation
+ * -Djmh.args="--players 2000 --ticks 600"
+ */
+public final class LoadSimulation {
+
+    private int players = 500;
+    private int worlds = 3;
+    private int groups = 5;
+    private int ticks = 200;
+    private int updateEvery = 100;
+    private boolean pacing = true;
+    private File dataFolder = new File("target/simulation");
+
+    public static void main(String[] args) throws Exception {
+        Stubs.install();
+        LoadSimulation simulation = new LoadSimulation();
+        if (!simulation.parse(args)) {
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        simulation.run();
+        System.exit(0);
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: LoadSimulation [options]");
+        System.out.println("  --players <n>       Simulated players (default 500)");
+        System.out.println("  --worlds <n>        Worlds the players are spread over (default 3)");
+        System.out.println("  --groups <n>        LuckPerms groups the players are spread over (default 5)");
+        System.out.println("  --ticks <n>         Ticks to simulate (default 200)");
+        System.out.println("  --update-every <n>  Full update (like a LuckPerms change) every n ticks, 0 = never (default 100)");
+        System.out.println("  --data <folder>     Folder with config.yml, sidebar.yml and animations.yml (default target/simulation)");
+        System.out.println("  --no-pacing         Run ticks back to back instead of every 50 ms");
+    }
+
+    private boolean parse(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--players":
+                        players = Integer.parseInt(args[++i]);
+                        break;
+                    case "--worlds":
+                        worlds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--groups":
+                        groups = Integer.parseInt(args[++i]);
+                        break;
+                    case "--ticks":
+                        ticks = Integer.parseInt(args[++i]);
+                        break;
+                    case "--update-every":
+                        updateEvery = Integer.parseInt(args[++i]);
+                        break;
+                    case "--data":
+                        dataFolder = new File(args[++i]);
+                        break;
+                    case "--no-pacing":
+                        pacing = false;
+                        break;
+                    default:
+                        return false;
+                }
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+        return players > 0 && worlds > 0 && groups > 0 && ticks > 0 && updateEvery >= 0;
+    }
+
+    private void run() throws Exception {
+        YamlConfiguration config = Harness.loadConfig(dataFolder);
+
+        List<World> serverWorlds = new ArrayList<>();
+        for (int i = 0; i < worlds; i++) {
+            serverWorlds.add(Stubs.world("world_" + i));
+        }
+        Stubs.setWorlds(serverWorlds);
+
+        StubLuckPerms.install();
+        for (int i = 0; i < groups; i++) {
+            StubLuckPerms.addGroup("group_" + i, i * 10, "&7[&bG" + i + "&7] ", "");
+        }
+
+        List<Player> online = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) {
+            Player player = Stubs.player("Player" + i, serverWorlds.get(i % worlds));
+            StubLuckPerms.addUser(player.getUniqueId(), player.getName(), "group_" + (i % groups));
+            online.add(player);
+        }
+        Stubs.setOnline(online);
+
+        VirtualScheduler scheduler = Harness.start(config, dataFolder);
+        Harness.initialUpdate(scheduler);
+
+        System.out.printf(Locale.ROOT, "Simulating %d players in %d worlds and %d groups for %d ticks%n",
+                players, worlds, groups, ticks);
+
+        long updatesBefore = Stubs.getUpdates();
+        long allocatedBefore = Harness.allocatedBytes();
+        long[] tickNanos = new long[ticks];
+
+        for (int tick = 0; tick < ticks; tick++) {
+            long started = System.nanoTime();
+            if (updateEvery > 0 && tick % updateEvery == 0) {
+                ScoreboardClass.Update();
+            }
+            tickNanos[tick] = Harness.tick(scheduler, started, pacing);
+        }
+
+        // Let the last render finish, it belongs to the simulated ticks
+        Harness.awaitRenders(scheduler);
+
+        long allocated = Harness.allocatedBytes() - allocatedBefore;
+        Harness.report(tickNanos, Stubs.getUpdates() - updatesBefore, allocated, players, config);
+        Harness.stop();
+    }
+}
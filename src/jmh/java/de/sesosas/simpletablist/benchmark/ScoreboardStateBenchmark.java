@@ -0,0 +1,80 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
+import de.sesosas.simpletablist.cache.ScoreboardStateCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change detection of the scoreboard state cache, for unchanged and changed output
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoreboardStateBenchmark {
+
+    @Param({"100", "1000"})
+    public int players;
+
+    private UUID[] ids;
+    private long displayName;
+    private long header;
+    private long footer;
+    private long team;
+    private int next = 0;
+
+    @Setup
+    public void setup() {
+        ScoreboardStateCache.clearAll();
+        displayName = FingerprintUtil.of("§aNotch");
+        header = FingerprintUtil.of("§6Welcome\n§7Online: 100");
+        footer = FingerprintUtil.of("§7play.example.net");
+        team = FingerprintUtil.of("STL_00010");
+
+        ids = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            ids[i] = new UUID(0x5354L, i);
+            ScoreboardStateCache.updateDisplayName(ids[i], displayName);
+            ScoreboardStateCache.updateHeader(ids[i], header);
+            ScoreboardStateCache.updateFooter(ids[i], footer);
+            ScoreboardStateCache.updateTeam(ids[i], team);
+        }
+    }
+
+    @Benchmark
+    public boolean unchanged() {
+        return ScoreboardStateCache.shouldUpdate(nextId(), displayName, header, footer, team);
+    }
+
+    @Benchmark
+    public boolean changedHeader() {
+        return ScoreboardStateCache.shouldUpdate(nextId(), displayName, header + 1, footer, team);
+    }
+
+    @Benchmark
+    public boolean unchangedStrings() {
+        return ScoreboardStateCache.shouldUpdate(nextId(), "§aNotch", "§6Welcome\n§7Online: 100",
+                "§7play.example.net", "STL_00010");
+    }
+
+    private UUID nextId() {
+        UUID id = ids[next];
+        next = next + 1 == ids.length ? 0 : next + 1;
+        return id;
+    }
+}
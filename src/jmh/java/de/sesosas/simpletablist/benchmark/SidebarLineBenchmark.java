@@ -0,0 +1,38 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.classes.scoreboard.SidebarClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning rendered sidebar lines into unique scoreboard entries (SidebarClass.makeLineUnique through formatLine)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SidebarLineBenchmark {
+
+    @Param({"§6Coins: §f1,024", "§7§m--------§r §e§lSERVER§r §7§m--------§r §bplay.example.net"})
+    public String line;
+
+    @Benchmark
+    public void fifteenLines(Blackhole blackhole) {
+        for (int score = 15; score > 0; score--) {
+            blackhole.consume(SidebarClass.formatLine(line, score, " ", true));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.api.utils.StringUtil;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text conversion: built-in placeholders, template functions and color codes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringUtilBenchmark {
+
+    private static final String NAME = "&7[&a[player_group]&7] &f[player_name] &8| &#ff8800[player_health]❤ &8| &b[player_world]";
+    private static final String HEX = "&#ff0000R&#ff8800a&#ffff00i&#00ff00n&#0000ffb&#8800ffo&#ff00ffw &l&nbold &r&7and plain text";
+    private static final String CAPITALIZATION = "[#cap(player)] [#capall(online)] [#pad(name,16)]|";
+
+    private Player player;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        Stubs.install();
+        player = Stubs.player("Notch");
+        Stubs.setOnline(Collections.singletonList(player));
+    }
+
+    @Benchmark
+    public String convert() {
+        return StringUtil.Convert(NAME, player);
+    }
+
+    @Benchmark
+    public String hex() {
+        return StringUtil.hex(HEX);
+    }
+
+    /**
+     * The suffix varies the input, so the JIT can not fold a constant text and no cache serves a repeated one
+     */
+    @Benchmark
+    public String ensureCapitalization() {
+        return StringUtil.ensureCapitalization(CAPITALIZATION + counter++);
+    }
+}
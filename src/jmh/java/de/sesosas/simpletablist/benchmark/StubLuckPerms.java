@@ -0,0 +1,124 @@
+package de.sesosas.simpletablist.benchmark;
+
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.cacheddata.CachedDataManager;
+import net.luckperms.api.cacheddata.CachedMetaData;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.group.GroupManager;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.model.user.UserManager;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LuckPerms with groups and users held in memory, registered as the LuckPermsProvider instance.
+ * Every user is in exactly one group, which gives the prefix, suffix and weight.
+ */
+public final class StubLuckPerms {
+
+    private static final Map<String, Group> groups = new ConcurrentHashMap<>();
+    private static final Map<String, String[]> groupMeta = new ConcurrentHashMap<>();
+    private static final Map<UUID, User> users = new ConcurrentHashMap<>();
+    private static boolean installed = false;
+
+    private StubLuckPerms() {
+    }
+
+    /**
+     * Register the stub as the LuckPerms API (once per JVM)
+     */
+    public static synchronized void install() throws ReflectiveOperationException {
+        if (installed) {
+            return;
+        }
+
+        UserManager userManager = Stubs.proxy(UserManager.class, (proxy, method, args) ->
+                method.getName().equals("getUser") && args[0] instanceof UUID ? users.get(args[0]) : null);
+        GroupManager groupManager = Stubs.proxy(GroupManager.class, (proxy, method, args) ->
+                method.getName().equals("getGroup") ? groups.get((String) args[0]) : null);
+        LuckPerms luckPerms = Stubs.proxy(LuckPerms.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUserManager":
+                    return userManager;
+                case "getGroupManager":
+                    return groupManager;
+                default:
+                    return null;
+            }
+        });
+
+        // Only LuckPerms itself is meant to register an instance
+        Method register = LuckPermsProvider.class.getDeclaredMethod("register", LuckPerms.class);
+        register.setAccessible(true);
+        register.invoke(null, luckPerms);
+        installed = true;
+    }
+
+    /**
+     * Add a group, or replace the group with the same name
+     */
+    public static void addGroup(String name, int weight, String prefix, String suffix) {
+        groupMeta.put(name, new String[]{prefix, suffix});
+        groups.put(name, Stubs.proxy(Group.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                case "getFriendlyName":
+                    return name;
+                case "getWeight":
+                    return OptionalInt.of(weight);
+                default:
+                    return null;
+            }
+        }));
+    }
+
+    /**
+     * Add a user to a group added before
+     */
+    public static void addUser(UUID uuid, String username, String group) {
+        String[] meta = groupMeta.get(group);
+        CachedMetaData metaData = Stubs.proxy(CachedMetaData.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getPrefix":
+                    return meta[0];
+                case "getSuffix":
+                    return meta[1];
+                case "getPrimaryGroup":
+                    return group;
+                default:
+                    return null;
+            }
+        });
+        CachedDataManager cachedData = Stubs.proxy(CachedDataManager.class, (proxy, method, args) ->
+                method.getName().equals("getMetaData") ? metaData : null);
+
+        users.put(uuid, Stubs.proxy(User.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getUsername":
+                    return username;
+                case "getPrimaryGroup":
+                    return group;
+                case "getCachedData":
+                    return cachedData;
+                case "getInheritedGroups":
+                    return Collections.singletonList(groups.get(group));
+                default:
+                    return null;
+            }
+        }));
+    }
+
+    public static void clear() {
+        groups.clear();
+        groupMeta.clear();
+        users.clear();
+    }
+}
@@ -0,0 +1,182 @@
+package de.sesosas.simpletablist.benchmark;
+
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Score;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Scoreboard with working teams and objectives. Like the server's scoreboard, getTeams returns a copy.
+ * Objective and score changes are counted as updates sent to players.
+ */
+public final class StubScoreboard {
+
+    private final Map<String, Team> teams = new LinkedHashMap<>();
+    private final Map<String, String> entryTeams = new HashMap<>();
+    private final Map<String, Objective> objectives = new HashMap<>();
+    private final Scoreboard scoreboard = Stubs.proxy(Scoreboard.class, (proxy, method, args) -> {
+        switch (method.getName()) {
+            case "getTeams":
+                return Collections.unmodifiableSet(new HashSet<>(teams.values()));
+            case "getTeam":
+                return teams.get((String) args[0]);
+            case "registerNewTeam":
+                return register((String) args[0]);
+            case "getEntryTeam":
+                return entryTeam((String) args[0]);
+            case "getObjective":
+                return args[0] instanceof String ? objectives.get((String) args[0]) : null;
+            case "getObjectives":
+                return Collections.unmodifiableSet(new HashSet<>(objectives.values()));
+            case "registerNewObjective":
+                return registerObjective((String) args[0], args.length > 2 ? (String) args[2] : (String) args[0]);
+            default:
+                return null;
+        }
+    });
+
+    public Scoreboard getScoreboard() {
+        return scoreboard;
+    }
+
+    /**
+     * Register teams "team_0" to "team_{count-1}", each with one entry
+     */
+    public void fill(int count) {
+        for (int i = 0; i < count; i++) {
+            register("team_" + i).addEntry("entry_" + i);
+        }
+    }
+
+    /**
+     * Unregister all teams registered after the first count ones
+     */
+    public void truncate(int count) {
+        List<String> names = new ArrayList<>(teams.keySet());
+        for (int i = count; i < names.size(); i++) {
+            unregister(names.get(i));
+        }
+    }
+
+    public int size() {
+        return teams.size();
+    }
+
+    private Team register(String name) {
+        if (teams.containsKey(name)) {
+            throw new IllegalArgumentException("Team name '" + name + "' is already in use");
+        }
+
+        Set<String> entries = new LinkedHashSet<>();
+        Team team = Stubs.proxy(Team.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                case "getDisplayName":
+                    return name;
+                case "getEntries":
+                    return Collections.unmodifiableSet(new HashSet<>(entries));
+                case "getSize":
+                    return entries.size();
+                case "hasEntry":
+                    return entries.contains((String) args[0]);
+                case "addEntry":
+                    // An entry can only be in one team
+                    String previous = entryTeams.put((String) args[0], name);
+                    if (previous != null && !previous.equals(name) && teams.containsKey(previous)) {
+                        teams.get(previous).removeEntry((String) args[0]);
+                    }
+                    entries.add((String) args[0]);
+                    return null;
+                case "removeEntry":
+                    entryTeams.remove((String) args[0], name);
+                    return entries.remove((String) args[0]);
+                case "unregister":
+                    unregister(name);
+                    return null;
+                default:
+                    return null;
+            }
+        });
+        teams.put(name, team);
+        return team;
+    }
+
+    private Objective registerObjective(String name, String initialDisplayName) {
+        if (objectives.containsKey(name)) {
+            throw new IllegalArgumentException("An objective of name '" + name + "' already exists");
+        }
+
+        Map<String, Integer> scores = new HashMap<>();
+        String[] displayName = {initialDisplayName};
+        Stubs.countUpdate();
+
+        Objective objective = Stubs.proxy(Objective.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "getDisplayName":
+                    return displayName[0];
+                case "setDisplayName":
+                    displayName[0] = (String) args[0];
+                    Stubs.countUpdate();
+                    return null;
+                case "setDisplaySlot":
+                    Stubs.countUpdate();
+                    return null;
+                case "unregister":
+                    objectives.remove(name);
+                    Stubs.countUpdate();
+                    return null;
+                case "getScore":
+                    return score(scores, (String) args[0]);
+                default:
+                    return null;
+            }
+        });
+        objectives.put(name, objective);
+        return objective;
+    }
+
+    private static Score score(Map<String, Integer> scores, String entry) {
+        return Stubs.proxy(Score.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getEntry":
+                    return entry;
+                case "getScore":
+                    return scores.getOrDefault(entry, 0);
+                case "isScoreSet":
+                    return scores.containsKey(entry);
+                case "setScore":
+                    scores.put(entry, (Integer) args[0]);
+                    Stubs.countUpdate();
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private void unregister(String name) {
+        Team team = teams.remove(name);
+        if (team != null) {
+            for (String entry : team.getEntries()) {
+                entryTeams.remove(entry, name);
+            }
+        }
+    }
+
+    private Team entryTeam(String entry) {
+        String name = entryTeams.get(entry);
+        return name != null ? teams.get(name) : null;
+    }
+}
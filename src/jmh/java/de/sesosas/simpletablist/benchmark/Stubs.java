@@ -0,0 +1,343 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.SimpleTabList;
+import de.sesosas.simpletablist.config.CurrentConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scoreboard.ScoreboardManager;
+
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Proxy based stand-ins for the Bukkit server, players and worlds, so plugin code runs without a server.
+ * Methods that are not stubbed return null, zero or false.
+ */
+public final class Stubs {
+
+    // Copied on write, render threads may iterate the online players while players join
+    private static final List<Player> online = new CopyOnWriteArrayList<>();
+    private static final Map<UUID, Player> onlineById = new HashMap<>();
+    private static final List<World> worlds = new ArrayList<>(Collections.singletonList(world("world")));
+    private static final AtomicLong updates = new AtomicLong();
+    private static StubScoreboard mainScoreboard = new StubScoreboard();
+    private static boolean installed = false;
+
+    private Stubs() {
+    }
+
+    /**
+     * Install the stub server (once per JVM) and a configuration with the plugin's defaults
+     * @return The configuration, change it to test other settings
+     */
+    public static synchronized YamlConfiguration install() {
+        if (!installed) {
+            Bukkit.setServer(proxy(Server.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getLogger":
+                        return Logger.getLogger("StubServer");
+                    case "getName":
+                        return "StubServer";
+                    case "getVersion":
+                    case "getBukkitVersion":
+                        return "1.16.2-R0.1-SNAPSHOT";
+                    case "getPluginManager":
+                        return proxy(PluginManager.class, null);
+                    case "getScoreboardManager":
+                        return scoreboardManager();
+                    case "getOnlinePlayers":
+                        return Collections.unmodifiableList(online);
+                    case "getPlayer":
+                        return findPlayer(args[0]);
+                    case "getWorlds":
+                        return new ArrayList<>(worlds);
+                    case "getWorld":
+                        return findWorld(args[0]);
+                    case "isPrimaryThread":
+                        return true;
+                    default:
+                        return null;
+                }
+            }));
+            installed = true;
+        }
+
+        YamlConfiguration config = new YamlConfiguration();
+        SimpleTabList.addDefaults(config);
+        config.set("Names.Format.Default", "&f[player_name]");
+        config.set("Performance.Watchdog.Enable", false);
+        CurrentConfig.use(config);
+        return config;
+    }
+
+    /**
+     * Create a plugin that is enabled and reads the given configuration
+     */
+    public static Plugin plugin(YamlConfiguration config, File dataFolder) {
+        return proxy(Plugin.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return "SimpleTabList";
+                case "isEnabled":
+                    return true;
+                case "getConfig":
+                    return config;
+                case "getDataFolder":
+                    return dataFolder;
+                case "getLogger":
+                    return Logger.getLogger("SimpleTabList");
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * Replace the worlds of the server
+     */
+    public static synchronized void setWorlds(List<World> serverWorlds) {
+        worlds.clear();
+        worlds.addAll(serverWorlds);
+    }
+
+    /**
+     * @return Number of changes sent to players so far: list names, headers, footers and sidebar changes
+     */
+    public static long getUpdates() {
+        return updates.get();
+    }
+
+    static void countUpdate() {
+        updates.incrementAndGet();
+    }
+
+    public static synchronized StubScoreboard mainScoreboard() {
+        return mainScoreboard;
+    }
+
+    /**
+     * Replace the server's main scoreboard
+     */
+    public static synchronized void setMainScoreboard(StubScoreboard scoreboard) {
+        mainScoreboard = scoreboard;
+    }
+
+    /**
+     * Replace the online players
+     */
+    public static synchronized void setOnline(List<Player> players) {
+        online.clear();
+        online.addAll(players);
+        onlineById.clear();
+        for (Player player : players) {
+            onlineById.put(player.getUniqueId(), player);
+        }
+    }
+
+    public static int onlineCount() {
+        return online.size();
+    }
+
+    /**
+     * Add a player to the online players
+     */
+    public static synchronized void addOnline(Player player) {
+        if (onlineById.put(player.getUniqueId(), player) == null) {
+            online.add(player);
+        }
+    }
+
+    /**
+     * Remove a player from the online players
+     */
+    public static synchronized void removeOnline(Player player) {
+        if (onlineById.remove(player.getUniqueId()) != null) {
+            online.remove(player);
+        }
+    }
+
+    /**
+     * Create a player named name in the world "world"
+     */
+    public static Player player(String name) {
+        return player(name, worlds.get(0));
+    }
+
+    /**
+     * Create a player named name in the given world
+     */
+    public static Player player(String name, World world) {
+        return player(UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8)), name, world);
+    }
+
+    /**
+     * Create a player with the given id and name in the given world. Teleporting moves the player to the
+     * target location's world.
+     */
+    public static Player player(UUID uuid, String name, World world) {
+        Location[] location = {new Location(world, 100.5, 64, -20.5)};
+
+        return proxy(Player.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                case "getDisplayName":
+                case "getPlayerListName":
+                    return name;
+                case "getUniqueId":
+                    return uuid;
+                case "getWorld":
+                    return location[0].getWorld();
+                case "getLocation":
+                    return location[0].clone();
+                case "teleport":
+                    if (args[0] instanceof Location) {
+                        location[0] = ((Location) args[0]).clone();
+                        return true;
+                    }
+                    return false;
+                case "getHealth":
+                    return 20.0;
+                case "getFoodLevel":
+                    return 18;
+                case "getExp":
+                    return 0.5f;
+                case "getLevel":
+                    return 12;
+                case "getGameMode":
+                    return GameMode.SURVIVAL;
+                case "isOnline":
+                    return true;
+                case "setPlayerListName":
+                case "setPlayerListHeader":
+                case "setPlayerListFooter":
+                case "setPlayerListHeaderFooter":
+                case "setScoreboard":
+                    countUpdate();
+                    return null;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * Create a world with the given name
+     */
+    public static World world(String name) {
+        return proxy(World.class, (proxy, method, args) -> method.getName().equals("getName") ? name : null);
+    }
+
+    private static ScoreboardManager scoreboardManager() {
+        return proxy(ScoreboardManager.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getMainScoreboard":
+                    return mainScoreboard.getScoreboard();
+                case "getNewScoreboard":
+                    return new StubScoreboard().getScoreboard();
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static synchronized World findWorld(Object key) {
+        for (World world : worlds) {
+            if (world.getName().equals(key)) {
+                return world;
+            }
+        }
+        return null;
+    }
+
+    private static synchronized Player findPlayer(Object key) {
+        if (key instanceof UUID) {
+            return onlineById.get(key);
+        }
+        for (Player player : online) {
+            if (player.getName().equals(key)) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a proxy of an interface
+     * @param handler Answers calls, may be null to answer everything with defaults. A null answer becomes the default.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    if (method.getParameterCount() == 1) {
+                        return proxy == args[0];
+                    }
+                    break;
+                case "hashCode":
+                    if (method.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    break;
+                case "toString":
+                    if (method.getParameterCount() == 0) {
+                        return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            Object answer = handler != null ? handler.invoke(proxy, method, args) : null;
+            return answer != null ? answer : defaultValue(method);
+        });
+    }
+
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,80 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.api.scheduler.VirtualScheduler;
+import de.sesosas.simpletablist.cache.ScoreboardStateCache;
+import de.sesosas.simpletablist.classes.scoreboard.NamesClass;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting a player into a team of the main scoreboard, which scans every team of the scoreboard.
+ * One sort is too short to reset the state before each call, so every operation sorts a batch of BATCH
+ * different players once and the state is reset between iterations. Scores are per batch.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, batchSize = TeamAssignmentBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = TeamAssignmentBenchmark.BATCH)
+@Fork(1)
+@State(Scope.Thread)
+public class TeamAssignmentBenchmark {
+
+    static final int BATCH = 1000;
+
+    @Param({"10", "1000", "10000"})
+    public int teams;
+
+    private StubScoreboard scoreboard;
+    private VirtualScheduler scheduler;
+    private final Player[] players = new Player[BATCH];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Stubs.install();
+        scheduler = Schedulers.useVirtual();
+
+        scoreboard = new StubScoreboard();
+        scoreboard.fill(teams);
+        Stubs.setMainScoreboard(scoreboard);
+        NamesClass.initScoreboard();
+
+        for (int i = 0; i < BATCH; i++) {
+            players[i] = Stubs.player("Player" + i);
+        }
+        Stubs.setOnline(Arrays.asList(players));
+    }
+
+    /**
+     * Undo the last batch, so every sort scans the same number of teams and is not skipped as unchanged
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        scheduler.advance(1);
+        scoreboard.truncate(teams);
+        for (Player player : players) {
+            ScoreboardStateCache.resetTeam(player.getUniqueId());
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public void sortPlayer() {
+        NamesClass.sortPlayer(players[next++ % BATCH]);
+    }
+}
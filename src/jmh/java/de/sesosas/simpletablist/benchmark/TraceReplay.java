@@ -0,0 +1,230 @@
+package de.sesosas.simpletablist.benchmark;
+
+import de.sesosas.simpletablist.api.scheduler.VirtualScheduler;
+import de.sesosas.simpletablist.command.ReloadCommand;
+import de.sesosas.simpletablist.event.EventTrace;
+import de.sesosas.simpletablist.event.IEventHandler;
+import de.sesosas.simpletablist.event.LuckPermsHandler;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Replays an event trace recorded with /stl trace (or Performance.Trace.Enable) against stub players, tick by tick,
+ * and reports what handling it cost. Players that quit, teleport or change worlds before their first join were online
+ * before the recording started and are online from the beginning. Every player is put in one of the LuckPerms groups.
+ * LuckPerms events are handled on the main thread, not on LuckPerms' threads as on a server.
+ * <p>
+ * Run with: mvn -P jmh verify -Djmh.main=de.sesosas.simpletablist.benchmark.TraceReplay
+ * -Djmh.args="--trace plugins/SimpleTabList/traces/trace-....stlt"
+ */
+public final class TraceReplay {
+
+    private File trace;
+    private int groups = 5;
+    private int after = 100;
+    private boolean pacing = true;
+    private File dataFolder = new File("target/simulation");
+
+    private final IEventHandler handler = new IEventHandler();
+    private final Map<UUID, Player> players = new HashMap<>();
+    private final Map<String, World> worlds = new LinkedHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        TraceReplay replay = new TraceReplay();
+        if (!replay.parse(args)) {
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        Stubs.install();
+        replay.run();
+        System.exit(0);
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: TraceReplay --trace <file> [options]");
+        System.out.println("  --trace <file>      Trace to replay");
+        System.out.println("  --groups <n>        LuckPerms groups the players are spread over (default 5)");
+        System.out.println("  --after <n>         Ticks to keep running after the last event (default 100)");
+        System.out.println("  --data <folder>     Folder with config.yml, sidebar.yml and animations.yml (default target/simulation)");
+        System.out.println("  --no-pacing         Run ticks back to back instead of every 50 ms");
+    }
+
+    private boolean parse(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--trace":
+                        trace = new File(args[++i]);
+                        break;
+                    case "--groups":
+                        groups = Integer.parseInt(args[++i]);
+                        break;
+                    case "--after":
+                        after = Integer.parseInt(args[++i]);
+                        break;
+                    case "--data":
+                        dataFolder = new File(args[++i]);
+                        break;
+                    case "--no-pacing":
+                        pacing = false;
+                        break;
+                    default:
+                        return false;
+                }
+            }
+        } catch (RuntimeException e) {
+            return false;
+        }
+        return trace != null && groups > 0 && after >= 0;
+    }
+
+    private void run() throws Exception {
+        List<EventTrace.Entry> entries = EventTrace.read(trace);
+        YamlConfiguration config = Harness.loadConfig(dataFolder);
+
+        StubLuckPerms.install();
+        for (int i = 0; i < groups; i++) {
+            StubLuckPerms.addGroup("group_" + i, i * 10, "&7[&bG" + i + "&7] ", "");
+        }
+
+        // Create everyone up front. Players that quit, teleport or change worlds before joining were
+        // already online, players only seen in LuckPerms changes are offline
+        List<Player> online = new ArrayList<>();
+        Set<UUID> present = new HashSet<>();
+        for (EventTrace.Entry entry : entries) {
+            UUID uuid = entry.getUniqueId();
+            if (uuid != null && !players.containsKey(uuid)) {
+                Player player = Stubs.player(uuid, entry.getName(), world(entry.getWorld()));
+                players.put(uuid, player);
+                StubLuckPerms.addUser(uuid, player.getName(), "group_" + (players.size() % groups));
+            }
+
+            if (uuid != null && entry.getType() != EventTrace.Type.USER_NODE
+                    && entry.getType() != EventTrace.Type.USER_RECALCULATE && present.add(uuid)) {
+                if (entry.getType() != EventTrace.Type.JOIN) {
+                    online.add(players.get(uuid));
+                }
+            } else if (entry.getWorld() != null) {
+                world(entry.getWorld());
+            }
+        }
+        Stubs.setWorlds(new ArrayList<>(worlds.values()));
+        Stubs.setOnline(online);
+
+        VirtualScheduler scheduler = Harness.start(config, dataFolder);
+        Harness.initialUpdate(scheduler);
+
+        int ticks = (int) ((entries.isEmpty() ? 0 : entries.get(entries.size() - 1).getTick()) + 1 + after);
+        System.out.printf(Locale.ROOT, "Replaying %d events of %d players in %d worlds over %d ticks (%d online at the start)%n",
+                entries.size(), players.size(), worlds.size(), ticks, online.size());
+
+        long updatesBefore = Stubs.getUpdates();
+        long allocatedBefore = Harness.allocatedBytes();
+        long[] tickNanos = new long[ticks];
+        int maxOnline = online.size();
+        int busiestTick = 0;
+        int busiestEvents = 0;
+        long busiestNanos = 0;
+        int next = 0;
+
+        for (int tick = 0; tick < ticks; tick++) {
+            long started = System.nanoTime();
+            int events = 0;
+            while (next < entries.size() && entries.get(next).getTick() <= tick) {
+                dispatch(entries.get(next++));
+                events++;
+            }
+            tickNanos[tick] = Harness.tick(scheduler, started, pacing);
+
+            maxOnline = Math.max(maxOnline, Stubs.onlineCount());
+            if (events > 0 && tickNanos[tick] > busiestNanos) {
+                busiestTick = tick;
+                busiestEvents = events;
+                busiestNanos = tickNanos[tick];
+            }
+        }
+
+        Harness.awaitRenders(scheduler);
+
+        long allocated = Harness.allocatedBytes() - allocatedBefore;
+        Harness.report(tickNanos, Stubs.getUpdates() - updatesBefore, allocated, maxOnline, config);
+        System.out.printf(Locale.ROOT, "Busiest tick: #%d with %d events, %.3f ms (%d players online at most)%n",
+                busiestTick, busiestEvents, busiestNanos / 1e6, maxOnline);
+        Harness.stop();
+    }
+
+    /**
+     * Hand an event to the plugin the way the server or LuckPerms would
+     */
+    private void dispatch(EventTrace.Entry entry) {
+        Player player = entry.getUniqueId() != null ? players.get(entry.getUniqueId()) : null;
+
+        switch (entry.getType()) {
+            case JOIN:
+                moveTo(player, entry.getWorld());
+                Stubs.addOnline(player);
+                handler.OnPlayerJoin(new PlayerJoinEvent(player, null));
+                break;
+            case QUIT:
+                handler.OnPlayerQuit(new PlayerQuitEvent(player, null));
+                Stubs.removeOnline(player);
+                break;
+            case TELEPORT: {
+                Location from = player.getLocation();
+                Location to = new Location(world(entry.getWorld()), 0.5, 64, 0.5);
+                handler.OnEntityPortalExitEvent(new PlayerTeleportEvent(player, from, to));
+                player.teleport(to);
+                break;
+            }
+            case WORLD_CHANGE: {
+                World from = player.getWorld();
+                moveTo(player, entry.getWorld());
+                handler.OnPlayerChangedWorld(new PlayerChangedWorldEvent(player, from));
+                break;
+            }
+            case USER_NODE:
+                LuckPermsHandler.onUserNodeChange(entry.getUniqueId(), entry.getName());
+                break;
+            case GROUP_NODE:
+                LuckPermsHandler.onGroupNodeChange();
+                break;
+            case USER_RECALCULATE:
+                LuckPermsHandler.onUserDataRecalculate(entry.getUniqueId(), entry.getName());
+                break;
+            case RELOAD:
+                ReloadCommand.reload(dataFolder);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void moveTo(Player player, String world) {
+        if (!player.getWorld().getName().equals(world)) {
+            player.teleport(new Location(world(world), 0.5, 64, 0.5));
+        }
+    }
+
+    private World world(String name) {
+        return worlds.computeIfAbsent(name != null && !name.isEmpty() ? name : "world", Stubs::world);
+    }
+}
@@ -1,9 +1,13 @@
 package de.sesosas.simpletablist;
 
 import de.sesosas.simpletablist.api.classes.AInterval;
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
 import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.api.utils.TickDriver;
+import de.sesosas.simpletablist.api.utils.Timings;
 import de.sesosas.simpletablist.api.utils.WorldUtil;
 import de.sesosas.simpletablist.animation.AnimationManager;
+import de.sesosas.simpletablist.cache.OnlineCounter;
 import de.sesosas.simpletablist.cache.PlayerDataCache;
 import de.sesosas.simpletablist.classes.UpdateClass;
 import de.sesosas.simpletablist.classes.scoreboard.NamesClass;
@@ -11,29 +15,37 @@ import de.sesosas.simpletablist.classes.scoreboard.SidebarClass;
 import de.sesosas.simpletablist.command.ReloadCommand;
 import de.sesosas.simpletablist.command.SidebarCommand;
 import de.sesosas.simpletablist.command.AnimationCommand;
+import de.sesosas.simpletablist.command.StlCommand;
 import de.sesosas.simpletablist.config.SidebarConfig;
+import de.sesosas.simpletablist.event.EventTrace;
 import de.sesosas.simpletablist.event.IEventHandler;
+import de.sesosas.simpletablist.event.LuckPermsHandler;
 import de.sesosas.simpletablist.classes.ScoreboardClass;
 import de.sesosas.simpletablist.interval.AnimatedText;
 import de.sesosas.simpletablist.interval.SidebarInterval;
+import de.sesosas.simpletablist.placeholder.PlaceholderCache;
+import de.sesosas.simpletablist.placeholder.PlaceholderWorker;
+import de.sesosas.simpletablist.render.RenderMemo;
+import de.sesosas.simpletablist.render.RenderPipeline;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.event.EventBus;
-import net.luckperms.api.event.LuckPermsEvent;
 import net.luckperms.api.event.node.NodeAddEvent;
+import net.luckperms.api.event.node.NodeMutateEvent;
 import net.luckperms.api.event.node.NodeRemoveEvent;
 import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SingleLineChart;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.entity.Player;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
-import java.util.UUID;
 
 public final class SimpleTabList extends JavaPlugin implements Listener {
 
@@ -49,7 +61,8 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
     public void onEnable() {
         plugin = this;
 
-        // Initialize thread utility
+        // Pick the Bukkit or Folia scheduler and initialize thread utility
+        Schedulers.initialize(this);
         ThreadUtil.initialize(this);
 
         // Initialize scoreboard
@@ -58,12 +71,25 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
         // Set up configuration defaults FIRST
         setupDefaultConfig();
 
+        // Per-stage timings for /stl timings, off unless enabled
+        Timings.setEnabled(config.getBoolean("Performance.Timings.Enable"));
+
+        // Start the parallel render pipeline
+        RenderPipeline.initialize();
+
+        // Load async placeholder whitelist and cache policies
+        PlaceholderWorker.loadConfig();
+        PlaceholderCache.loadConfig();
+
         // Load sidebar configuration BEFORE AnimationManager
         SidebarConfig.loadConfig();
 
         // NOW initialize animation system (after configs exist)
         AnimationManager.initialize();
 
+        // Count players that are already online (e.g. after /reload)
+        OnlineCounter.rebuild();
+
         // Initialize sidebar display
         SidebarClass.initialize();
 
@@ -85,17 +111,24 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
         new AnimatedText();
         new SidebarInterval();
 
-        // Start all intervals
+        // Start the tick driver and all intervals it runs
+        TickDriver.start(this);
         AInterval.startAllIntervals(this);
 
+        // Record events from the start to catch restart join storms
+        if (config.getBoolean("Performance.Trace.Enable")) {
+            startTrace();
+        }
+
         // Register event handlers and commands
         getServer().getPluginManager().registerEvents(new IEventHandler(), this);
         getCommand("stl-reload").setExecutor(new ReloadCommand());
         getCommand("sidebar").setExecutor(new SidebarCommand());
         getCommand("animation").setExecutor(new AnimationCommand());
+        getCommand("stl").setExecutor(new StlCommand());
 
         // Do initial scoreboard update after everything is initialized
-        Bukkit.getScheduler().runTaskLater(this, () -> {
+        Schedulers.get().runGlobalLater(() -> {
             ScoreboardClass.Update();
             Bukkit.getLogger().info("[SimpleTabList] Initial scoreboard update completed");
         }, 20L); // 1 second delay
@@ -107,6 +140,42 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
     }
 
     private void setupDefaultConfig() {
+        addDefaults(config);
+
+        List<String> headerComment = new ArrayList<>();
+        headerComment.add("Worlds\n");
+        headerComment.add("    Enable\n");
+        headerComment.add("Does enable/disable the worlds function which overrides the current Header and Footer content.\n");
+        headerComment.add("You need LuckPerms and PlaceholderAPI to make this plugin work!\n");
+        headerComment.add("Tab Refresh Interval Time is calculated in seconds.\n");
+        headerComment.add("Tab.Refresh.Interval.Ticks: Refresh period in ticks (20 per second), overrides Time when above 0.\n");
+        headerComment.add("Performance.AsyncThreads: Set to true to run operations asynchronously for better performance.\n");
+        headerComment.add("Performance.Cache.TTL: Cache time-to-live in seconds (default: 30)\n");
+        headerComment.add("Performance.Cache.CleanupInterval: How often to clean expired cache entries in seconds (default: 60)\n");
+        headerComment.add("Performance.Render.Parallelism: Threads used to render tab contents, 0 = number of cores - 1\n");
+        headerComment.add("Performance.Render.MemoSize: Rendered texts shared between players with identical inputs, 0 = disabled\n");
+        headerComment.add("Performance.Render.Report: Log render statistics (memo hit rate) every cleanup interval\n");
+        headerComment.add("Performance.Tick.Budget: Milliseconds per tick spent on queued renders, the rest waits for the next tick\n");
+        headerComment.add("Performance.Queue.Capacity: Async tasks that can wait for a worker thread, Overflow: REJECT or CALLER_RUNS when full, never inline on the main thread (needs a restart)\n");
+        headerComment.add("Performance.VirtualThreads: Run async tasks on virtual threads when the server runs on Java 21 or newer (needs a restart)\n");
+        headerComment.add("Performance.Backoff.Enable: Refresh parts of the tab and sidebar that keep the same content less often\n");
+        headerComment.add("Performance.Backoff.MaxFactor: Unchanged parts are refreshed at most this many times slower (power of two, default: 8)\n");
+        headerComment.add("Performance.Watchdog: Lower the refresh rate when the plugin's own ms/tick or the server's MSPT crosses a threshold (0 = ignore)\n");
+        headerComment.add("Performance.Minify.Enable: Remove color codes that do not change how the text looks before sending it, Report logs the bytes saved per refresh\n");
+        headerComment.add("Performance.Trace.Enable: Record joins, quits, teleports, LuckPerms changes and reloads from startup into traces/ for replaying them, MaxSize in MB (also /stl trace)\n");
+        headerComment.add("Performance.Timings.Enable: Measure the time of each render stage from startup for /stl timings (also /stl timings on|off)\n");
+        headerComment.add("Placeholders.Async.Expansions: PlaceholderAPI expansions (e.g. vault, statistic) that are safe to resolve off the main thread.\n");
+        headerComment.add("Placeholders.Async.RefreshTimeout: Milliseconds after which a refresh of an async placeholder counts as timed out, it is not started again until the call returns\n");
+        headerComment.add("Placeholders.Async.MaxCalls: PlaceholderAPI calls of one async expansion that may run at once, the last value or the Fallback is shown meanwhile\n");
+        headerComment.add("Placeholders.Cache.Policies: Per placeholder (server_name) or prefix (vault_*) cache with Scope global, per-player or per-world and TTL in seconds (0 = until reload)\n");
+        config.options().header(headerComment.toString().replace("[", "").replace("]", "").replace(", ", ""));
+        saveConfig();
+    }
+
+    /**
+     * Add the default value of every setting to a configuration
+     */
+    public static void addDefaults(FileConfiguration config) {
         java.lang.String[] headerString = new java.lang.String[]{"This is a header and animation {animation:0}!", "You: %player_name%!"};
         java.lang.String[] footerString = new java.lang.String[] {"This is a footer!", "This is footer line 2!"};
 
@@ -127,23 +196,43 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
         config.addDefault("Chat.ActionbarMessage", false);
         config.addDefault("Tab.Refresh.Interval.Enable", false);
         config.addDefault("Tab.Refresh.Interval.Time", 1L);
+        config.addDefault("Tab.Refresh.Interval.Ticks", 0L);
         config.addDefault("bstats.Enable", true);
         config.addDefault("Performance.AsyncThreads", true);
         config.addDefault("Performance.Cache.TTL", 30);
         config.addDefault("Performance.Cache.CleanupInterval", 60);
+        config.addDefault("Performance.Render.Parallelism", 0);
+        config.addDefault("Performance.Render.MemoSize", 4096);
+        config.addDefault("Performance.Render.Report", false);
+        config.addDefault("Performance.Tick.Budget", 2);
+        config.addDefault("Performance.Queue.Capacity", 1024);
+        config.addDefault("Performance.Queue.Overflow", "REJECT");
+        config.addDefault("Performance.VirtualThreads", true);
+        config.addDefault("Performance.Backoff.Enable", false);
+        config.addDefault("Performance.Backoff.MaxFactor", 8);
+        config.addDefault("Performance.Watchdog.Enable", true);
+        config.addDefault("Performance.Watchdog.PluginMillis.Reduced", 2.0);
+        config.addDefault("Performance.Watchdog.PluginMillis.Minimal", 5.0);
+        config.addDefault("Performance.Watchdog.ServerMspt.Reduced", 45.0);
+        config.addDefault("Performance.Watchdog.ServerMspt.Minimal", 55.0);
+        config.addDefault("Performance.Minify.Enable", false);
+        config.addDefault("Performance.Minify.Report", false);
+        config.addDefault("Performance.Trace.Enable", false);
+        config.addDefault("Performance.Trace.MaxSize", 16);
+        config.addDefault("Performance.Timings.Enable", false);
+        config.addDefault("Placeholders.Async.Enable", false);
+        config.addDefault("Placeholders.Async.Expansions", new ArrayList<String>());
+        config.addDefault("Placeholders.Async.RefreshTimeout", 5000);
+        config.addDefault("Placeholders.Async.MaxCalls", 4);
+        config.addDefault("Placeholders.Async.Fallback", "");
+        config.addDefault("Placeholders.Cache.Enable", true);
+        config.addDefault("Placeholders.Cache.Policies.server_max_players.Scope", "global");
+        config.addDefault("Placeholders.Cache.Policies.server_max_players.TTL", 0);
+        config.addDefault("Placeholders.Cache.Policies.server_name.Scope", "global");
+        config.addDefault("Placeholders.Cache.Policies.server_name.TTL", 0);
+        config.addDefault("Placeholders.Cache.Policies.server_online.Scope", "global");
+        config.addDefault("Placeholders.Cache.Policies.server_online.TTL", 1);
         config.options().copyDefaults(true);
-
-        List<String> headerComment = new ArrayList<>();
-        headerComment.add("Worlds\n");
-        headerComment.add("    Enable\n");
-        headerComment.add("Does enable/disable the worlds function which overrides the current Header and Footer content.\n");
-        headerComment.add("You need LuckPerms and PlaceholderAPI to make this plugin work!\n");
-        headerComment.add("Tab Refresh Interval Time is calculated in seconds.\n");
-        headerComment.add("Performance.AsyncThreads: Set to true to run operations asynchronously for better performance.\n");
-        headerComment.add("Performance.Cache.TTL: Cache time-to-live in seconds (default: 30)\n");
-        headerComment.add("Performance.Cache.CleanupInterval: How often to clean expired cache entries in seconds (default: 60)\n");
-        config.options().header(headerComment.toString().replace("[", "").replace("]", "").replace(", ", ""));
-        saveConfig();
     }
 
     private void setupLuckPerms() {
@@ -172,6 +261,7 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
         Metrics metrics = new Metrics(this, id);
         metrics.addCustomChart(new SingleLineChart("banned", () -> Bukkit.getBannedPlayers().size()));
         metrics.addCustomChart(new SingleLineChart("cached_players", PlayerDataCache::size));
+        metrics.addCustomChart(new SingleLineChart("render_memo_hit_rate", RenderMemo::getHitRate));
         Bukkit.getLogger().info("bStats metrics enabled");
     }
 
@@ -185,13 +275,23 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
         });
     }
 
+    /**
+     * Start recording an event trace into a new file in the traces folder
+     * @return False if a trace is already being recorded or the file could not be created
+     */
+    public static boolean startTrace() {
+        String name = "trace-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + ".stlt";
+        File file = new File(new File(plugin.getDataFolder(), "traces"), name);
+        return EventTrace.start(file, Math.max(0, plugin.config.getLong("Performance.Trace.MaxSize")) * 1024 * 1024);
+    }
+
     /**
      * Start cache cleanup task
      */
     private void startCacheCleanupTask() {
         long cleanupInterval = config.getLong("Performance.Cache.CleanupInterval", 60);
 
-        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
+        Schedulers.get().runAsyncTimer(() -> {
             int sizeBefore = PlayerDataCache.size();
             PlayerDataCache.cleanupExpired();
             int sizeAfter = PlayerDataCache.size();
@@ -199,11 +299,18 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
             if (sizeBefore > sizeAfter) {
                 Bukkit.getLogger().info("[SimpleTabList] Cache cleanup: removed " + (sizeBefore - sizeAfter) + " expired entries");
             }
+
+            int memoHitRate = RenderMemo.getHitRateSinceLastReport();
+            if (memoHitRate >= 0 && config.getBoolean("Performance.Render.Report")) {
+                Bukkit.getLogger().info("[SimpleTabList] Render memo: " + memoHitRate + "% hit rate, " + RenderMemo.size() + " entries");
+            }
         }, cleanupInterval * 20L, cleanupInterval * 20L);
     }
 
     @Override
     public void onDisable(){
+        EventTrace.stop();
+
         // Clean up player scoreboards
         NamesClass.resetPlayerNames();
 
@@ -212,9 +319,16 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
 
         // Stop all intervals
         AInterval.stopAllIntervals();
+        TickDriver.stop();
+        Timings.setEnabled(false);
+
+        // Stop the render pipeline
+        RenderPipeline.shutdown();
 
         // Clear all caches
         PlayerDataCache.clearAll();
+        PlaceholderWorker.clearAll();
+        PlaceholderCache.clearAll();
 
         // Graceful shutdown of thread pools
         ThreadUtil.shutdown();
@@ -235,38 +349,12 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
     /**
      * Handle LuckPerms node changes (add/remove)
      */
-    private <T extends LuckPermsEvent> void onNodeChange(T event) {
-        // Extract UUID from event
-        UUID affectedUser = null;
-
-        if (event instanceof NodeAddEvent) {
-            NodeAddEvent nodeEvent = (NodeAddEvent) event;
-            if (nodeEvent.isUser()) {
-                // Get UUID from Identifier
-                net.luckperms.api.model.user.User user = (net.luckperms.api.model.user.User) nodeEvent.getTarget();
-                affectedUser = user.getUniqueId();
-            }
-        } else if (event instanceof NodeRemoveEvent) {
-            NodeRemoveEvent nodeEvent = (NodeRemoveEvent) event;
-            if (nodeEvent.isUser()) {
-                // Get UUID from Identifier
-                net.luckperms.api.model.user.User user = (net.luckperms.api.model.user.User) nodeEvent.getTarget();
-                affectedUser = user.getUniqueId();
-            }
-        }
-
-        // Invalidate cache for affected user
-        if (affectedUser != null) {
-            final UUID userId = affectedUser;
-            PlayerDataCache.invalidate(userId);
-
-            // Update scoreboard for online player
-            Player player = Bukkit.getPlayer(userId);
-            if (player != null && player.isOnline()) {
-                ThreadUtil.submitTask(() -> {
-                    ScoreboardClass.Update();
-                });
-            }
+    private void onNodeChange(NodeMutateEvent event) {
+        if (event.isGroup()) {
+            LuckPermsHandler.onGroupNodeChange();
+        } else if (event.isUser()) {
+            net.luckperms.api.model.user.User user = (net.luckperms.api.model.user.User) event.getTarget();
+            LuckPermsHandler.onUserNodeChange(user.getUniqueId(), user.getUsername());
         }
     }
 
@@ -274,17 +362,6 @@ public final class SimpleTabList extends JavaPlugin implements Listener {
      * Handle LuckPerms user data recalculate
      */
     private void onUserDataRecalculate(UserDataRecalculateEvent event) {
-        UUID userId = event.getUser().getUniqueId();
-
-        // Invalidate cache
-        PlayerDataCache.invalidate(userId);
-
-        // Update scoreboard for online player
-        Player player = Bukkit.getPlayer(userId);
-        if (player != null && player.isOnline()) {
-            ThreadUtil.submitTask(() -> {
-                ScoreboardClass.Update();
-            });
-        }
+        LuckPermsHandler.onUserDataRecalculate(event.getUser().getUniqueId(), event.getUser().getUsername());
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package de.sesosas.simpletablist.animation;
 
 import de.sesosas.simpletablist.SimpleTabList;
+import de.sesosas.simpletablist.api.utils.Timings;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -120,12 +121,19 @@ public class AnimationManager {
      * Initialize animation system
      */
     public static void initialize() {
+        initialize(SimpleTabList.getPlugin().getDataFolder());
+    }
+
+    /**
+     * Initialize animation system with the animations.yml of the given data folder
+     */
+    public static void initialize(File dataFolder) {
         if (initialized) {
             Bukkit.getLogger().warning("[SimpleTabList] AnimationManager already initialized");
             return;
         }
 
-        animationsFile = new File(SimpleTabList.getPlugin().getDataFolder(), "animations.yml");
+        animationsFile = new File(dataFolder, "animations.yml");
 
         if (!animationsFile.exists()) {
             createDefaultAnimations();
@@ -278,6 +286,13 @@ public class AnimationManager {
         Bukkit.getLogger().info("[SimpleTabList] Loaded " + animations.size() + " animations");
     }
 
+    /**
+     * Add an animation or replace the one with the same id, without touching animations.yml
+     */
+    public static void register(Animation animation) {
+        animations.put(animation.getId(), animation);
+    }
+
     /**
      * Reload animations from file
      */
@@ -293,6 +308,7 @@ public class AnimationManager {
             return text;
         }
 
+        long started = Timings.start();
         Matcher matcher = ANIMATION_PATTERN.matcher(text);
         StringBuffer result = new StringBuffer();
 
@@ -319,6 +335,7 @@ public class AnimationManager {
         }
 
         matcher.appendTail(result);
+        Timings.stop(Timings.Stage.ANIMATIONS, started);
         return result.toString();
     }
 
@@ -1,24 +1,25 @@
 package de.sesosas.simpletablist.api.classes;
 
-import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.api.utils.TickDriver;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 
 /**
- * Abstract class for creating interval-based tasks
+ * Abstract class for creating interval-based tasks.
+ * Periods are measured in ticks, each started interval gets a phase offset so intervals fire on different ticks.
+ * Intervals are run on the main thread by the TickDriver and must be started and stopped there.
  */
 public abstract class AInterval {
 
     private final String name;
     private static final List<AInterval> instances = new ArrayList<>();
-    private BukkitTask bukkitTask;
     private String scheduledTaskId;
-    private long intervalTime;
+    private long intervalTicks;
+    private long phase = 0;
     private boolean isRunning = false;
     private final Object lock = new Object();
     private boolean useMainThread = false;
@@ -47,19 +48,44 @@ public abstract class AInterval {
      * @param intervalTime Interval time in seconds
      */
     public void setIntervalTime(long intervalTime) {
-        this.intervalTime = intervalTime;
+        setIntervalTicks(intervalTime * 20L);
     }
 
     /**
      * Get the interval time in seconds
-     * @return Interval time in seconds
+     * @return Interval time in seconds, rounded down
      */
     public long getIntervalTime() {
-        return this.intervalTime;
+        return this.intervalTicks / 20L;
     }
 
     /**
-     * Set whether this interval should run on the main server thread
+     * Set the interval time in ticks
+     * @param intervalTicks Interval time in ticks, at least 1
+     */
+    public void setIntervalTicks(long intervalTicks) {
+        this.intervalTicks = Math.max(1L, intervalTicks);
+    }
+
+    /**
+     * Get the interval time in ticks
+     * @return Interval time in ticks
+     */
+    public long getIntervalTicks() {
+        return this.intervalTicks;
+    }
+
+    /**
+     * Get the tick offset this interval was started with
+     * @return Phase offset in ticks
+     */
+    public long getPhase() {
+        return this.phase;
+    }
+
+    /**
+     * Set whether this interval should run on the main server thread.
+     * All intervals are driven by the TickDriver on the main thread, this is kept for API compatibility.
      * @param useMainThread True to run on main thread, false for async execution
      */
     public void setUseMainThread(boolean useMainThread) {
@@ -120,41 +146,40 @@ public abstract class AInterval {
      * @param interval Interval time in seconds
      */
     public void startInterval(JavaPlugin plugin, long interval) {
+        setIntervalTime(interval);
+        startInterval(plugin);
+    }
+
+    /**
+     * Start this interval with its configured period in ticks
+     * @param plugin Plugin instance
+     */
+    public void startInterval(JavaPlugin plugin) {
         synchronized (lock) {
             if (isRunning) {
                 return;
             }
 
-            if (useMainThread) {
-                // Use Bukkit scheduler for main thread execution
-                bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-                    try {
-                        // Check if this task should run based on player count
-                        if (requiresPlayers && Bukkit.getOnlinePlayers().isEmpty()) {
-                            return; // Skip execution if no players are online
-                        }
-                        Run();
-                    } catch (Exception e) {
-                        Bukkit.getLogger().log(Level.SEVERE,
-                                "[SimpleTabList] Error in interval task: " + name, e);
-                    }
-                }, 0L, interval * 20L);
-            } else {
-                // Use ThreadUtil for async execution
-                scheduledTaskId = "interval_" + name;
-                ThreadUtil.scheduleRepeatingTask(scheduledTaskId, () -> {
-                    try {
-                        // Check if this task should run based on player count
-                        if (requiresPlayers && Bukkit.getOnlinePlayers().isEmpty()) {
-                            return; // Skip execution if no players are online
-                        }
-                        Run();
-                    } catch (Exception e) {
-                        Bukkit.getLogger().log(Level.SEVERE,
-                                "[SimpleTabList] Error in async interval task: " + name, e);
+            long period = Math.max(1L, intervalTicks);
+            phase = assignPhase(this, period);
+
+            // Runs on every tick whose number modulo the period equals the phase
+            long now = TickDriver.getTick();
+            long firstTick = now + 1 + Math.floorMod(phase - (now + 1), period);
+
+            scheduledTaskId = "interval_" + name;
+            TickDriver.schedule(scheduledTaskId, () -> {
+                try {
+                    // Check if this task should run based on player count
+                    if (requiresPlayers && Bukkit.getOnlinePlayers().isEmpty()) {
+                        return; // Skip execution if no players are online
                     }
-                }, 0, interval * 1000);
-            }
+                    Run();
+                } catch (Exception e) {
+                    Bukkit.getLogger().log(Level.SEVERE,
+                            "[SimpleTabList] Error in interval task: " + name, e);
+                }
+            }, firstTick, period, true);
 
             isRunning = true;
             onStart();
@@ -170,11 +195,8 @@ public abstract class AInterval {
                 return;
             }
 
-            if (useMainThread && bukkitTask != null && !bukkitTask.isCancelled()) {
-                bukkitTask.cancel();
-                bukkitTask = null;
-            } else if (!useMainThread && scheduledTaskId != null) {
-                ThreadUtil.cancelTask(scheduledTaskId);
+            if (scheduledTaskId != null) {
+                TickDriver.cancel(scheduledTaskId);
                 scheduledTaskId = null;
             }
 
@@ -198,7 +220,7 @@ public abstract class AInterval {
     public static void startAllIntervals(JavaPlugin plugin) {
         for (AInterval intervalTask : instances) {
             try {
-                intervalTask.startInterval(plugin, intervalTask.getIntervalTime());
+                intervalTask.startInterval(plugin);
             } catch (Exception e) {
                 Bukkit.getLogger().log(Level.SEVERE,
                         "[SimpleTabList] Failed to start interval: " + intervalTask.getName(), e);
@@ -220,6 +242,43 @@ public abstract class AInterval {
         }
     }
 
+    /**
+     * Pick the tick offset that collides with the fewest running intervals.
+     * Two intervals with periods p and q and offsets a and b share a tick exactly when a and b are equal modulo gcd(p, q).
+     */
+    private static long assignPhase(AInterval interval, long period) {
+        long best = 0;
+        int bestCollisions = Integer.MAX_VALUE;
+
+        for (long offset = 0; offset < period && bestCollisions > 0; offset++) {
+            int collisions = 0;
+            for (AInterval other : instances) {
+                if (other == interval || !other.isRunning) {
+                    continue;
+                }
+                long gcd = gcd(period, Math.max(1L, other.intervalTicks));
+                if (offset % gcd == other.phase % gcd) {
+                    collisions++;
+                }
+            }
+            if (collisions < bestCollisions) {
+                best = offset;
+                bestCollisions = collisions;
+            }
+        }
+
+        return best;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
     /**
      * Get all registered interval instances
      * @return List of all interval instances
@@ -0,0 +1,36 @@
+package de.sesosas.simpletablist.api.scheduler;
+
+/**
+ * Source of the current time for cache expiry, the tick budget and other time-based decisions.
+ * Replaced by a VirtualScheduler to drive time by hand in tests and benchmarks.
+ */
+@FunctionalInterface
+public interface Clock {
+
+    /**
+     * The system clock
+     */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    /**
+     * @return Current time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * @return Time in nanoseconds for measuring durations, only differences between two values are meaningful
+     */
+    default long nanoTime() {
+        return currentTimeMillis() * 1_000_000L;
+    }
+}
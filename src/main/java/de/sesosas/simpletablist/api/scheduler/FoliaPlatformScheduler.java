@@ -0,0 +1,131 @@
+package de.sesosas.simpletablist.api.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Scheduler for Folia, using its region schedulers through reflection so the plugin still builds
+ * against the Spigot API. Player tasks run on the player's entity scheduler.
+ */
+public class FoliaPlatformScheduler implements PlatformScheduler {
+
+    private final Plugin plugin;
+
+    private final Object globalScheduler;
+    private final Object asyncScheduler;
+    private final Method globalExecute;
+    private final Method globalRunDelayed;
+    private final Method globalRunAtFixedRate;
+    private final Method asyncRunNow;
+    private final Method asyncRunAtFixedRate;
+    private final Method getEntityScheduler;
+    private final Method entityRun;
+    private final Method taskCancel;
+    private final Method isGlobalTickThread;
+    private final Method isOwnedByCurrentRegion;
+
+    public FoliaPlatformScheduler(Plugin plugin) throws ReflectiveOperationException {
+        this.plugin = plugin;
+
+        String base = "io.papermc.paper.threadedregions.scheduler.";
+        Class<?> globalClass = Class.forName(base + "GlobalRegionScheduler");
+        Class<?> asyncClass = Class.forName(base + "AsyncScheduler");
+        Class<?> entityClass = Class.forName(base + "EntityScheduler");
+        Class<?> taskClass = Class.forName(base + "ScheduledTask");
+
+        globalScheduler = Bukkit.class.getMethod("getGlobalRegionScheduler").invoke(null);
+        asyncScheduler = Bukkit.class.getMethod("getAsyncScheduler").invoke(null);
+
+        globalExecute = globalClass.getMethod("execute", Plugin.class, Runnable.class);
+        globalRunDelayed = globalClass.getMethod("runDelayed", Plugin.class, Consumer.class, long.class);
+        globalRunAtFixedRate = globalClass.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class);
+        asyncRunNow = asyncClass.getMethod("runNow", Plugin.class, Consumer.class);
+        asyncRunAtFixedRate = asyncClass.getMethod("runAtFixedRate", Plugin.class, Consumer.class, long.class, long.class, TimeUnit.class);
+        getEntityScheduler = Entity.class.getMethod("getScheduler");
+        entityRun = entityClass.getMethod("run", Plugin.class, Consumer.class, Runnable.class);
+        taskCancel = taskClass.getMethod("cancel");
+        isGlobalTickThread = Bukkit.class.getMethod("isGlobalTickThread");
+        isOwnedByCurrentRegion = Bukkit.class.getMethod("isOwnedByCurrentRegion", Entity.class);
+    }
+
+    /**
+     * @return True if the server is running Folia
+     */
+    public static boolean isSupported() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isGlobalThread() {
+        return (boolean) invoke(isGlobalTickThread, null);
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        invoke(globalExecute, globalScheduler, plugin, task);
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        Object scheduled = invoke(globalRunDelayed, globalScheduler, plugin, consumer(task), Math.max(1L, delayTicks));
+        return () -> invoke(taskCancel, scheduled);
+    }
+
+    @Override
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        Object scheduled = invoke(globalRunAtFixedRate, globalScheduler, plugin, consumer(task),
+                Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        return () -> invoke(taskCancel, scheduled);
+    }
+
+    @Override
+    public void runForPlayer(Player player, Runnable task) {
+        if ((boolean) invoke(isOwnedByCurrentRegion, null, player)) {
+            task.run();
+            return;
+        }
+        // Returns null if the player already left, the task is dropped then
+        Object scheduler = invoke(getEntityScheduler, player);
+        invoke(entityRun, scheduler, plugin, consumer(task), null);
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        invoke(asyncRunNow, asyncScheduler, plugin, consumer(task));
+    }
+
+    @Override
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        Object scheduled = invoke(asyncRunAtFixedRate, asyncScheduler, plugin, consumer(task),
+                Math.max(1L, delayTicks) * 50L, Math.max(1L, periodTicks) * 50L, TimeUnit.MILLISECONDS);
+        return () -> invoke(taskCancel, scheduled);
+    }
+
+    @Override
+    public boolean hasMainThread() {
+        return false;
+    }
+
+    private static Consumer<Object> consumer(Runnable task) {
+        return scheduledTask -> task.run();
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("[SimpleTabList] Folia scheduler call failed: " + method.getName(), e);
+        }
+    }
+}
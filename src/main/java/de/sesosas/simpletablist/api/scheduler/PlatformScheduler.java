@@ -0,0 +1,64 @@
+package de.sesosas.simpletablist.api.scheduler;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Runs plugin tasks on the right thread of the server platform.
+ * On Bukkit and Paper the global thread is the main thread, on Folia it is the global region thread
+ * and player tasks run on the region thread that owns the player.
+ */
+public interface PlatformScheduler {
+
+    /**
+     * Handle of a repeating task
+     */
+    interface Task {
+        void cancel();
+    }
+
+    /**
+     * @return True if the current thread is the global (main) thread
+     */
+    boolean isGlobalThread();
+
+    /**
+     * Run a task on the global thread
+     */
+    void runGlobal(Runnable task);
+
+    /**
+     * Run a task on the global thread after a delay
+     * @param delayTicks Delay in ticks, at least 1
+     */
+    Task runGlobalLater(Runnable task, long delayTicks);
+
+    /**
+     * Run a task on the global thread repeatedly
+     * @param delayTicks Delay before the first run in ticks, at least 1
+     * @param periodTicks Ticks between runs
+     */
+    Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Run a task on the thread that owns the player, right away if that is the current thread.
+     * The task is dropped if the player left.
+     */
+    void runForPlayer(Player player, Runnable task);
+
+    /**
+     * Run a task off the server threads
+     */
+    void runAsync(Runnable task);
+
+    /**
+     * Run a task off the server threads repeatedly
+     * @param delayTicks Delay before the first run in ticks, at least 1
+     * @param periodTicks Ticks between runs
+     */
+    Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * @return True if the platform has one scoreboard and main thread for everything, false on Folia
+     */
+    boolean hasMainThread();
+}
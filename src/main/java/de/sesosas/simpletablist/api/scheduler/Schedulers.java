@@ -0,0 +1,71 @@
+package de.sesosas.simpletablist.api.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Holds the scheduler for the platform the plugin runs on
+ */
+public class Schedulers {
+
+    private static PlatformScheduler scheduler;
+    private static Clock clock = Clock.SYSTEM;
+
+    /**
+     * Pick the scheduler for the running server
+     * @param plugin The plugin instance
+     */
+    public static void initialize(Plugin plugin) {
+        clock = Clock.SYSTEM;
+        if (FoliaPlatformScheduler.isSupported()) {
+            try {
+                scheduler = new FoliaPlatformScheduler(plugin);
+                Bukkit.getLogger().info("[SimpleTabList] Folia detected, using region schedulers");
+                return;
+            } catch (ReflectiveOperationException e) {
+                Bukkit.getLogger().warning("[SimpleTabList] Folia detected but its schedulers are not accessible: " + e.getMessage());
+            }
+        }
+        scheduler = new BukkitPlatformScheduler(plugin);
+    }
+
+    /**
+     * Replace the scheduler, e.g. with a virtual one outside a server
+     */
+    public static void set(PlatformScheduler platformScheduler) {
+        scheduler = platformScheduler;
+    }
+
+    /**
+     * Replace the clock used for cache expiry
+     */
+    public static void setClock(Clock platformClock) {
+        clock = platformClock;
+    }
+
+    /**
+     * Drive scheduling and time by hand: install a new VirtualScheduler as both scheduler and clock
+     * @return The installed scheduler, advance it to run ticks
+     */
+    public static VirtualScheduler useVirtual() {
+        VirtualScheduler virtual = new VirtualScheduler();
+        scheduler = virtual;
+        clock = virtual;
+        return virtual;
+    }
+
+    public static PlatformScheduler get() {
+        return scheduler;
+    }
+
+    public static Clock clock() {
+        return clock;
+    }
+
+    /**
+     * @return True if the server is running Folia
+     */
+    public static boolean isFolia() {
+        return scheduler != null && !scheduler.hasMainThread();
+    }
+}
@@ -0,0 +1,185 @@
+package de.sesosas.simpletablist.api.scheduler;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+
+/**
+ * Scheduler and clock that only move when advanced by hand, for tests and benchmarks outside a server.
+ * Every tick advances the clock by 50 ms and runs the tasks due in that tick in the order they were scheduled,
+ * async tasks included, all on the thread calling advance. Tasks may be scheduled from any thread.
+ * As a clock its nanoTime moves with the ticks too, so work within a tick takes no time and tick budgets,
+ * measured capture costs and the watchdog behave the same on every run.
+ */
+public class VirtualScheduler implements PlatformScheduler, Clock {
+
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final Thread owner;
+    private final long startMillis;
+    private final PriorityQueue<Scheduled> queue = new PriorityQueue<>();
+    private long tick = 0;
+    private long sequence = 0;
+
+    private static final class Scheduled implements Task, Comparable<Scheduled> {
+        private final Runnable runnable;
+        private final long period;
+        private long nextTick;
+        private long sequence;
+        private volatile boolean cancelled = false;
+
+        private Scheduled(Runnable runnable, long nextTick, long period) {
+            this.runnable = runnable;
+            this.nextTick = nextTick;
+            this.period = period;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int compareTo(Scheduled other) {
+            int byTick = Long.compare(nextTick, other.nextTick);
+            return byTick != 0 ? byTick : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Create a scheduler starting at tick 0, owned by the current thread
+     */
+    public VirtualScheduler() {
+        this(0L);
+    }
+
+    /**
+     * Create a scheduler starting at tick 0, owned by the current thread
+     * @param startMillis Clock time at tick 0
+     */
+    public VirtualScheduler(long startMillis) {
+        this.owner = Thread.currentThread();
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Run the given number of ticks
+     */
+    public void advance(long ticks) {
+        for (long i = 0; i < ticks; i++) {
+            runTick();
+        }
+    }
+
+    /**
+     * Run ticks until at least the given time has passed
+     */
+    public void advanceMillis(long millis) {
+        advance((millis + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK);
+    }
+
+    private void runTick() {
+        synchronized (this) {
+            tick++;
+        }
+
+        Scheduled scheduled;
+        while ((scheduled = pollDue()) != null) {
+            if (scheduled.cancelled) {
+                continue;
+            }
+            try {
+                scheduled.runnable.run();
+            } catch (Exception e) {
+                Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in virtual task", e);
+            }
+            if (scheduled.period > 0 && !scheduled.cancelled) {
+                synchronized (this) {
+                    scheduled.nextTick = tick + scheduled.period;
+                    enqueue(scheduled);
+                }
+            }
+        }
+    }
+
+    private synchronized Scheduled pollDue() {
+        Scheduled next = queue.peek();
+        return next != null && next.nextTick <= tick ? queue.poll() : null;
+    }
+
+    private synchronized Scheduled schedule(Runnable task, long delayTicks, long periodTicks) {
+        Scheduled scheduled = new Scheduled(task, tick + Math.max(1L, delayTicks), periodTicks > 0 ? Math.max(1L, periodTicks) : 0);
+        enqueue(scheduled);
+        return scheduled;
+    }
+
+    private void enqueue(Scheduled scheduled) {
+        scheduled.sequence = sequence++;
+        queue.add(scheduled);
+    }
+
+    /**
+     * @return Number of ticks run so far
+     */
+    public synchronized long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return Number of scheduled tasks, cancelled ones included until their tick comes
+     */
+    public synchronized int getPendingTasks() {
+        return queue.size();
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return startMillis + tick * MILLIS_PER_TICK;
+    }
+
+    @Override
+    public boolean isGlobalThread() {
+        return Thread.currentThread() == owner;
+    }
+
+    @Override
+    public void runGlobal(Runnable task) {
+        schedule(task, 1L, 0L);
+    }
+
+    @Override
+    public Task runGlobalLater(Runnable task, long delayTicks) {
+        return schedule(task, delayTicks, 0L);
+    }
+
+    @Override
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        return schedule(task, delayTicks, periodTicks);
+    }
+
+    @Override
+    public void runForPlayer(Player player, Runnable task) {
+        if (isGlobalThread()) {
+            task.run();
+        } else {
+            runGlobal(task);
+        }
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        schedule(task, 1L, 0L);
+    }
+
+    @Override
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        return schedule(task, delayTicks, periodTicks);
+    }
+
+    @Override
+    public boolean hasMainThread() {
+        return true;
+    }
+}
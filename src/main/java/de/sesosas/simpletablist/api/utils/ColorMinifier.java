@@ -0,0 +1,170 @@
+package de.sesosas.simpletablist.api.utils;
+
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.bukkit.ChatColor.COLOR_CHAR;
+
+/**
+ * Removes formatting codes that do not change how a translated text looks:
+ * repeated codes, colors overridden before any text, colors equal to the active one and trailing codes.
+ */
+public class ColorMinifier {
+
+    private static final String DEFAULT_COLOR = "r";
+    private static final String FORMATS = "klmno";
+
+    private static final AtomicLong totalSaved = new AtomicLong();
+    private static volatile long lastRefreshSaved = 0;
+
+    /**
+     * Minify a text that already went through color translation, safe to call from any thread
+     */
+    public static String minify(String text) {
+        if (text == null || text.indexOf(COLOR_CHAR) < 0) {
+            return text;
+        }
+
+        int length = text.length();
+        StringBuilder out = new StringBuilder(length);
+
+        // Style currently in effect
+        String color = DEFAULT_COLOR;
+        int formats = 0;
+
+        // Codes seen since the last visible character
+        boolean pending = false;
+        String runColor = null;
+        String runColorCode = null;
+        int runFormats = 0;
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == COLOR_CHAR && i + 1 < length) {
+                char code = Character.toLowerCase(text.charAt(i + 1));
+
+                if (code == 'x' && isHexSequence(text, i)) {
+                    // A color resets all formats before it
+                    runColorCode = text.substring(i, i + 14);
+                    runColor = runColorCode;
+                    runFormats = 0;
+                    pending = true;
+                    i += 14;
+                    continue;
+                }
+                if ((code >= '0' && code <= '9') || (code >= 'a' && code <= 'f') || code == 'r') {
+                    runColorCode = text.substring(i, i + 2);
+                    runColor = String.valueOf(code);
+                    runFormats = 0;
+                    pending = true;
+                    i += 2;
+                    continue;
+                }
+                int format = FORMATS.indexOf(code);
+                if (format >= 0) {
+                    runFormats |= 1 << format;
+                    pending = true;
+                    i += 2;
+                    continue;
+                }
+            }
+
+            if (pending) {
+                if (runColor == null) {
+                    appendFormats(out, runFormats & ~formats);
+                    formats |= runFormats;
+                } else if (runColor.equals(color) && (formats & ~runFormats) == 0) {
+                    // Same color and no format has to be cleared, only add what is new
+                    appendFormats(out, runFormats & ~formats);
+                    formats = runFormats;
+                } else {
+                    out.append(runColorCode);
+                    appendFormats(out, runFormats);
+                    color = runColor;
+                    formats = runFormats;
+                }
+
+                pending = false;
+                runColor = null;
+                runColorCode = null;
+                runFormats = 0;
+            }
+
+            out.append(c);
+            i++;
+        }
+
+        // Codes after the last visible character are dropped, unless there is no visible character at all
+        // (sidebar configs use lines like "&1" as blank lines)
+        if (out.length() == length || out.length() == 0) {
+            return text;
+        }
+        return out.toString();
+    }
+
+    private static boolean isHexSequence(String text, int start) {
+        if (start + 14 > text.length()) {
+            return false;
+        }
+        for (int j = start + 2; j < start + 14; j += 2) {
+            if (text.charAt(j) != COLOR_CHAR) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendFormats(StringBuilder out, int mask) {
+        for (int format = 0; mask != 0; format++, mask >>>= 1) {
+            if ((mask & 1) != 0) {
+                out.append(COLOR_CHAR).append(FORMATS.charAt(format));
+            }
+        }
+    }
+
+    /**
+     * Number of UTF-8 bytes saved by minifying a text
+     */
+    public static int bytesSaved(String original, String minified) {
+        if (original == null || original == minified) {
+            return 0;
+        }
+        return utf8Length(original) - utf8Length(minified);
+    }
+
+    private static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Record the bytes saved by one refresh
+     */
+    public static void record(long saved, int players, boolean report) {
+        lastRefreshSaved = saved;
+        totalSaved.addAndGet(saved);
+
+        if (report && saved > 0) {
+            Bukkit.getLogger().info("[SimpleTabList] Minifier saved " + saved + " bytes for " + players
+                    + " players this refresh (" + totalSaved.get() + " bytes total)");
+        }
+    }
+
+    public static long getLastRefreshSaved() { return lastRefreshSaved; }
+    public static long getTotalSaved() { return totalSaved.get(); }
+}
@@ -0,0 +1,165 @@
+package de.sesosas.simpletablist.api.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.bukkit.ChatColor.COLOR_CHAR;
+
+/**
+ * Single pass translation of &#RRGGBB and & color codes, safe to call from any thread
+ */
+public class ColorTranslator {
+
+    private static final int MAX_CACHED = 4096;
+    private static final int MAX_CACHED_LENGTH = 256;
+    private static final Map<String, String> segmentCache = new ConcurrentHashMap<>();
+
+    private static final byte CODE = 1;
+    private static final byte WORD = 2;
+    private static final byte HEX = 4;
+    private static final byte[] TABLE = new byte[128];
+
+    static {
+        for (char c : "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx".toCharArray()) {
+            TABLE[c] |= CODE;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            TABLE[c] |= WORD;
+            TABLE[Character.toUpperCase(c)] |= WORD;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            TABLE[c] |= WORD | HEX;
+        }
+        TABLE['_'] |= WORD;
+        for (char c = 'a'; c <= 'f'; c++) {
+            TABLE[c] |= HEX;
+            TABLE[Character.toUpperCase(c)] |= HEX;
+        }
+    }
+
+    /**
+     * Translate a text. Every line is cached on its own, so static lines are only translated once
+     * even if other lines of the same text change on every render.
+     */
+    public static String translate(String text) {
+        if (text == null || text.indexOf('&') < 0) {
+            return text;
+        }
+
+        long started = Timings.start();
+        int newline = text.indexOf('\n');
+        if (newline < 0) {
+            String translated = translateSegment(text);
+            Timings.stop(Timings.Stage.COLORS, started);
+            return translated;
+        }
+
+        StringBuilder builder = new StringBuilder(text.length() + 16);
+        int start = 0;
+        while (newline >= 0) {
+            builder.append(translateSegment(text.substring(start, newline))).append('\n');
+            start = newline + 1;
+            newline = text.indexOf('\n', start);
+        }
+        String translated = builder.append(translateSegment(text.substring(start))).toString();
+        Timings.stop(Timings.Stage.COLORS, started);
+        return translated;
+    }
+
+    private static String translateSegment(String segment) {
+        if (segment.indexOf('&') < 0) {
+            return segment;
+        }
+
+        if (segment.length() > MAX_CACHED_LENGTH) {
+            return translate(segment, 0, segment.length(), new StringBuilder(segment.length() + 16)).toString();
+        }
+
+        String translated = segmentCache.get(segment);
+        if (translated == null) {
+            // Segments with dynamic values never repeat, keep the cache bounded
+            if (segmentCache.size() >= MAX_CACHED) {
+                segmentCache.clear();
+            }
+            translated = translate(segment, 0, segment.length(), new StringBuilder(segment.length() + 16)).toString();
+            segmentCache.put(segment, translated);
+        }
+        return translated;
+    }
+
+    /**
+     * Translate a range of a text into the given builder
+     * @return The builder
+     */
+    public static StringBuilder translate(CharSequence text, int start, int end, StringBuilder out) {
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c != '&' || i + 1 >= end) {
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            char next = text.charAt(i + 1);
+            if (next == '#' && isHexColor(text, i + 2, end)) {
+                out.append(COLOR_CHAR).append('x');
+                for (int j = i + 2; j < i + 8; j++) {
+                    out.append(COLOR_CHAR).append(text.charAt(j));
+                }
+                i += 8;
+            } else if (is(next, CODE)) {
+                out.append(COLOR_CHAR).append(Character.toLowerCase(next));
+                i += 2;
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Translate codes with an arbitrary alternate color char, without hex colors
+     */
+    public static String translate(char altColorChar, String text) {
+        if (text.indexOf(altColorChar) < 0) {
+            return text;
+        }
+
+        char[] b = text.toCharArray();
+        for (int i = 0; i < b.length - 1; i++) {
+            if (b[i] == altColorChar && is(b[i + 1], CODE)) {
+                b[i] = COLOR_CHAR;
+                b[i + 1] = Character.toLowerCase(b[i + 1]);
+            }
+        }
+        return new String(b);
+    }
+
+    /**
+     * Matches the RRGGBB part of &#RRGGBB: five word characters followed by a hex digit
+     */
+    private static boolean isHexColor(CharSequence text, int from, int end) {
+        if (from + 6 > end) {
+            return false;
+        }
+        for (int j = from; j < from + 5; j++) {
+            if (!is(text.charAt(j), WORD)) {
+                return false;
+            }
+        }
+        return is(text.charAt(from + 5), HEX);
+    }
+
+    private static boolean is(char c, byte flag) {
+        return c < 128 && (TABLE[c] & flag) != 0;
+    }
+
+    /**
+     * Forget all translated segments
+     */
+    public static void clearCache() {
+        segmentCache.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package de.sesosas.simpletablist.api.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the executor for blocking work (PlaceholderAPI, LuckPerms loads).
+ * Virtual threads are found through reflection, so the plugin keeps its Java 8 baseline and still uses them on
+ * Java 21+. A versioned class would not help: plugin class loaders ignore multi-release jar entries.
+ */
+public class ExecutorFactory {
+
+    /**
+     * Create an executor that runs every task on a new virtual thread
+     * @param prefix Thread name prefix, threads are numbered from 1
+     * @return The executor, or null if the runtime has no virtual threads
+     */
+    public static ExecutorService newVirtualThreadExecutor(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+            Method create = java.util.concurrent.Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) create.invoke(null, factory);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return Feature version of the running Java, e.g. 8 or 21
+     */
+    public static int getJavaVersion() {
+        String version = System.getProperty("java.specification.version", "1.8");
+        if (version.startsWith("1.")) {
+            version = version.substring(2);
+        }
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return 8;
+        }
+    }
+}
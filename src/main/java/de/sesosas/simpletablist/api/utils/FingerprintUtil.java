@@ -0,0 +1,83 @@
+package de.sesosas.simpletablist.api.utils;
+
+/**
+ * 64-bit FNV-1a content fingerprints used for cheap change detection
+ */
+public class FingerprintUtil {
+
+    /**
+     * Marker for "nothing known yet" - never equal to a real fingerprint in practice
+     */
+    public static final long NONE = 0L;
+
+    /**
+     * Start value for a new fingerprint
+     */
+    public static final long EMPTY = 0xcbf29ce484222325L;
+
+    private static final long PRIME = 0x100000001b3L;
+    private static final long NULL_MARKER = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Fingerprint a complete text
+     */
+    public static long of(CharSequence text) {
+        return append(EMPTY, text);
+    }
+
+    /**
+     * Continue a fingerprint with more text
+     */
+    public static long append(long hash, CharSequence text) {
+        if (text == null) {
+            return (hash ^ NULL_MARKER) * PRIME;
+        }
+        for (int i = 0, len = text.length(); i < len; i++) {
+            hash ^= text.charAt(i);
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Continue a fingerprint with one of several values, prefixed with its length so that adjacent values
+     * cannot run into each other ("1" + "23" differs from "12" + "3")
+     */
+    public static long appendValue(long hash, CharSequence value) {
+        if (value == null) {
+            return (hash ^ NULL_MARKER) * PRIME;
+        }
+        return append(append(hash, (long) value.length()), value);
+    }
+
+    /**
+     * Continue a fingerprint with a part of a text
+     */
+    public static long append(long hash, CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            hash ^= text.charAt(i);
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Continue a fingerprint with a single character
+     */
+    public static long append(long hash, char c) {
+        hash ^= c;
+        return hash * PRIME;
+    }
+
+    /**
+     * Continue a fingerprint with a number
+     */
+    public static long append(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value & 0xff);
+            hash *= PRIME;
+            value >>>= 8;
+        }
+        return hash;
+    }
+}
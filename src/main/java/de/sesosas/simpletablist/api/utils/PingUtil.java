@@ -0,0 +1,74 @@
+package de.sesosas.simpletablist.api.utils;
+
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Reads a player's ping on every server version: Player#getPing where it exists (1.17+),
+ * otherwise the ping field of the NMS player. Lookups are done once per player class.
+ */
+public class PingUtil {
+
+    private static volatile Class<?> resolvedFor;
+    private static volatile Method getPing;
+    private static volatile Method getHandle;
+    private static volatile Field pingField;
+
+    /**
+     * @return The ping in milliseconds, or -1 if it cannot be read
+     */
+    public static int getPing(Player player) {
+        try {
+            // resolvedFor is written last, so seeing it set means the lookups are visible too
+            if (resolvedFor != player.getClass()) {
+                resolve(player.getClass());
+            }
+
+            if (getPing != null) {
+                return (int) getPing.invoke(player);
+            }
+            if (getHandle != null && pingField != null) {
+                return pingField.getInt(getHandle.invoke(player));
+            }
+        } catch (Exception ignored) {
+            // Unknown server implementation
+        }
+        return -1;
+    }
+
+    private static synchronized void resolve(Class<?> playerClass) {
+        if (resolvedFor == playerClass) {
+            return;
+        }
+
+        getPing = null;
+        getHandle = null;
+        pingField = null;
+
+        try {
+            getPing = playerClass.getMethod("getPing");
+        } catch (NoSuchMethodException e) {
+            try {
+                getHandle = playerClass.getMethod("getHandle");
+                Class<?> handleClass = getHandle.getReturnType();
+                for (String name : new String[]{"ping", "latency"}) {
+                    try {
+                        Field field = handleClass.getField(name);
+                        if (field.getType() == int.class) {
+                            pingField = field;
+                            break;
+                        }
+                    } catch (NoSuchFieldException ignored) {
+                        // Try the next known name
+                    }
+                }
+            } catch (NoSuchMethodException ignored) {
+                // Not a CraftBukkit player
+            }
+        }
+
+        resolvedFor = playerClass;
+    }
+}
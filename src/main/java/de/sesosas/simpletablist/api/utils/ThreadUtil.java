@@ -1,31 +1,108 @@
 package de.sesosas.simpletablist.api.utils;
 
+import de.sesosas.simpletablist.api.scheduler.PlatformScheduler;
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 /**
- * Thread utility with thread pool for better resource control
+ * Thread utility with thread pool for better resource control.
+ * The worker queue is bounded (Performance.Queue.Capacity), a full queue rejects the task or runs it on the
+ * submitting thread (Performance.Queue.Overflow: REJECT or CALLER_RUNS). Tasks submitted from the main thread
+ * are always rejected, blocking LuckPerms or PlaceholderAPI work must not run inline there.
+ * Keyed submissions are merged while a task with the same key is still waiting.
+ * On Java 21+ blocking work runs on virtual threads instead (Performance.VirtualThreads), the capacity then
+ * limits the number of tasks running at once.
  */
 public class ThreadUtil {
 
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
     private static Plugin plugin;
     private static ExecutorService executor;
-    private static ScheduledExecutorService scheduledExecutor;
-    private static final Map<String, ScheduledFuture<?>> scheduledTasks = new HashMap<>();
-    private static final Map<String, CompletableFuture<?>> runningTasks = new HashMap<>();
-    private static boolean executorsShutdown = false;
+    private static final Map<String, PlatformScheduler.Task> scheduledTasks = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<?>> runningTasks = new ConcurrentHashMap<>();
+    private static volatile boolean executorsShutdown = false;
+
+    // Keys of submitted tasks that have not started yet
+    private static final Map<String, CompletableFuture<Void>> pendingKeys = new ConcurrentHashMap<>();
+    private static final Set<String> pendingMainKeys = ConcurrentHashMap.newKeySet();
+
+    private static volatile int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private static volatile boolean callerRuns = false;
+    private static volatile boolean allowVirtualThreads = true;
+    private static volatile boolean virtualThreads = false;
+    private static final AtomicInteger runningVirtual = new AtomicInteger();
+
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong merged = new AtomicLong();
+    private static final AtomicLong rejected = new AtomicLong();
+    private static final AtomicLong callerRan = new AtomicLong();
+    private static final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private static volatile long averageLatencyNanos = 0;
+
+    private static final RejectedExecutionHandler OVERFLOW = (task, pool) -> {
+        if (callerRuns && (pool == null || !pool.isShutdown()) && !Schedulers.get().isGlobalThread()) {
+            callerRan.incrementAndGet();
+            task.run();
+        } else {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("[SimpleTabList] Task queue is full");
+        }
+    };
+
+    // Measures how long tasks wait in the queue
+    private static final Executor timedExecutor = command -> {
+        ensureExecutorsActive();
+        submitted.incrementAndGet();
+        long queued = System.nanoTime();
+
+        if (virtualThreads) {
+            // Virtual threads start right away, bound the number of running tasks instead of the queue
+            if (runningVirtual.incrementAndGet() > queueCapacity) {
+                runningVirtual.decrementAndGet();
+                OVERFLOW.rejectedExecution(command, (ThreadPoolExecutor) null);
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        recordLatency(System.nanoTime() - queued);
+                        command.run();
+                    } finally {
+                        runningVirtual.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                runningVirtual.decrementAndGet();
+                throw e;
+            }
+            return;
+        }
+
+        executor.execute(() -> {
+            recordLatency(System.nanoTime() - queued);
+            command.run();
+        });
+        trackDepth();
+    };
 
     /**
      * Initialize the thread utilities with a plugin instance
@@ -33,6 +110,9 @@ public class ThreadUtil {
      */
     public static void initialize(Plugin pluginInstance) {
         plugin = pluginInstance;
+        queueCapacity = Math.max(1, pluginInstance.getConfig().getInt("Performance.Queue.Capacity", DEFAULT_QUEUE_CAPACITY));
+        callerRuns = "CALLER_RUNS".equalsIgnoreCase(pluginInstance.getConfig().getString("Performance.Queue.Overflow", "REJECT"));
+        allowVirtualThreads = pluginInstance.getConfig().getBoolean("Performance.VirtualThreads", true);
         createExecutors();
         Bukkit.getLogger().info("[SimpleTabList] Optimized thread utilities initialized");
     }
@@ -41,7 +121,7 @@ public class ThreadUtil {
      * Create executor services with fixed thread pools for better control
      */
     private static synchronized void createExecutors() {
-        if (executor == null || executor.isShutdown() || scheduledExecutor == null || scheduledExecutor.isShutdown()) {
+        if (executor == null || executor.isShutdown()) {
             // Create thread factory with proper naming for better debugging
             ThreadFactory threadFactory = new ThreadFactory() {
                 private final AtomicInteger count = new AtomicInteger(0);
@@ -56,15 +136,23 @@ public class ThreadUtil {
                 }
             };
 
-            if (executor == null || executor.isShutdown()) {
-                // Use FixedThreadPool instead of CachedThreadPool for better control
-                int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
-                executor = Executors.newFixedThreadPool(poolSize, threadFactory);
-                Bukkit.getLogger().info("[SimpleTabList] Created fixed thread pool with " + poolSize + " threads");
+            if ((executor == null || executor.isShutdown()) && allowVirtualThreads) {
+                executor = ExecutorFactory.newVirtualThreadExecutor("STL-Virtual-");
+                virtualThreads = executor != null;
+                if (virtualThreads) {
+                    Bukkit.getLogger().info("[SimpleTabList] Using virtual threads for async tasks (Java "
+                            + ExecutorFactory.getJavaVersion() + "), at most " + queueCapacity + " running at once");
+                }
             }
 
-            if (scheduledExecutor == null || scheduledExecutor.isShutdown()) {
-                scheduledExecutor = Executors.newScheduledThreadPool(2, threadFactory);
+            if (executor == null || executor.isShutdown()) {
+                virtualThreads = false;
+                // Fixed pool with a bounded queue, so a burst of submissions cannot grow without limit
+                int poolSize = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+                executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity), threadFactory, OVERFLOW);
+                Bukkit.getLogger().info("[SimpleTabList] Created fixed thread pool with " + poolSize
+                        + " threads and a queue of " + queueCapacity + " tasks");
             }
 
             executorsShutdown = false;
@@ -75,8 +163,7 @@ public class ThreadUtil {
      * Check if executors need to be initialized and do so if necessary
      */
     private static void ensureExecutorsActive() {
-        if (executorsShutdown || executor == null || executor.isShutdown() ||
-                scheduledExecutor == null || scheduledExecutor.isShutdown()) {
+        if (executorsShutdown || executor == null || executor.isShutdown()) {
             createExecutors();
         }
     }
@@ -87,15 +174,70 @@ public class ThreadUtil {
      * @return CompletableFuture representing the pending completion of the task
      */
     public static CompletableFuture<Void> submitTask(Runnable task) {
-        ensureExecutorsActive();
+        try {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in async task", e);
+                }
+            }, timedExecutor);
+        } catch (RejectedExecutionException e) {
+            return failed(e);
+        }
+    }
 
-        return CompletableFuture.runAsync(() -> {
-            try {
-                task.run();
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in async task", e);
-            }
-        }, executor);
+    /**
+     * Submit a task identified by a key. While a task with the same key is waiting to start,
+     * further submissions are merged into it instead of being queued again.
+     * @param key Key describing the work, e.g. "preload:" + uuid
+     * @param task The task to execute
+     * @return Future of the task that will do the work
+     */
+    public static CompletableFuture<Void> submitKeyed(String key, Runnable task) {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> existing = pendingKeys.putIfAbsent(key, created);
+        if (existing != null) {
+            merged.incrementAndGet();
+            return existing;
+        }
+
+        try {
+            timedExecutor.execute(() -> {
+                // From here on a new submission has to run again
+                pendingKeys.remove(key, created);
+                try {
+                    task.run();
+                    created.complete(null);
+                } catch (Exception e) {
+                    Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in keyed task: " + key, e);
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingKeys.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    /**
+     * Submit a task with a result to be executed asynchronously
+     * @param task The task to execute
+     * @return CompletableFuture completed with the result of the task
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, timedExecutor);
+        } catch (RejectedExecutionException e) {
+            return failed(e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
     }
 
     /**
@@ -104,74 +246,73 @@ public class ThreadUtil {
      * @param task The task to execute
      */
     public static void submitNamedTask(String taskName, Runnable task) {
-        ensureExecutorsActive();
-
-        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-            try {
-                task.run();
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in named task: " + taskName, e);
-            } finally {
-                runningTasks.remove(taskName);
-            }
-        }, executor);
+        CompletableFuture<Void> future;
+        try {
+            future = CompletableFuture.runAsync(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in named task: " + taskName, e);
+                } finally {
+                    runningTasks.remove(taskName);
+                }
+            }, timedExecutor);
+        } catch (RejectedExecutionException e) {
+            return;
+        }
 
-        runningTasks.put(taskName, future);
+        if (!future.isDone()) {
+            runningTasks.put(taskName, future);
+        }
     }
 
     /**
-     * Schedule a task to run after a delay
+     * Schedule a task to run on the main thread after a delay
      * @param taskName Name to identify the task
      * @param task The task to execute
-     * @param delay The delay in milliseconds
+     * @param delay The delay in milliseconds, rounded up to ticks
      */
     public static void scheduleTask(String taskName, Runnable task, long delay) {
-        ensureExecutorsActive();
+        if (!plugin.isEnabled()) {
+            Bukkit.getLogger().warning("[SimpleTabList] Cannot schedule task, plugin is disabled: " + taskName);
+            return;
+        }
 
-        ScheduledFuture<?> future = scheduledExecutor.schedule(() -> {
+        PlatformScheduler.Task scheduled = Schedulers.get().runGlobalLater(() -> {
+            scheduledTasks.remove(taskName);
             try {
                 if (!Bukkit.getOnlinePlayers().isEmpty() || taskName.startsWith("system_")) {
-                    if (plugin.isEnabled()) {
-                        Bukkit.getScheduler().runTask(plugin, task);
-                    } else {
-                        task.run();
-                    }
+                    task.run();
                 }
             } catch (Exception e) {
                 Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in scheduled task: " + taskName, e);
-            } finally {
-                scheduledTasks.remove(taskName);
             }
-        }, delay, TimeUnit.MILLISECONDS);
+        }, (delay + 49) / 50);
 
-        scheduledTasks.put(taskName, future);
+        PlatformScheduler.Task previous = scheduledTasks.put(taskName, scheduled);
+        if (previous != null) {
+            previous.cancel();
+        }
     }
 
     /**
-     * Schedule a repeating task
+     * Schedule a repeating task on the main thread, driven by the TickDriver
      * @param taskName Name to identify the task
      * @param task The task to execute repeatedly
-     * @param initialDelay Initial delay in milliseconds
-     * @param period Period between executions in milliseconds
+     * @param initialDelay Initial delay in milliseconds, rounded up to ticks
+     * @param period Period between executions in milliseconds, rounded up to ticks
      */
     public static void scheduleRepeatingTask(String taskName, Runnable task, long initialDelay, long period) {
-        ensureExecutorsActive();
+        if (!Schedulers.get().isGlobalThread()) {
+            runOnMainThread(() -> scheduleRepeatingTask(taskName, task, initialDelay, period));
+            return;
+        }
 
-        ScheduledFuture<?> future = scheduledExecutor.scheduleAtFixedRate(() -> {
-            try {
-                if (!Bukkit.getOnlinePlayers().isEmpty() || taskName.startsWith("system_")) {
-                    if (plugin.isEnabled()) {
-                        Bukkit.getScheduler().runTask(plugin, task);
-                    } else {
-                        cancelTask(taskName);
-                    }
-                }
-            } catch (Exception e) {
-                Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in repeating task: " + taskName, e);
+        TickDriver.schedule(taskName, () -> {
+            if (!Bukkit.getOnlinePlayers().isEmpty() || taskName.startsWith("system_")) {
+                task.run();
             }
-        }, initialDelay, period, TimeUnit.MILLISECONDS);
-
-        scheduledTasks.put(taskName, future);
+        }, TickDriver.getTick() + (initialDelay + 49) / 50, (period + 49) / 50);
     }
 
     /**
@@ -180,11 +321,15 @@ public class ThreadUtil {
      * @return True if the task was found and cancelled
      */
     public static boolean cancelTask(String taskName) {
-        boolean cancelled = false;
+        boolean cancelled = TickDriver.cancel(taskName);
+        if (!Schedulers.get().isGlobalThread()) {
+            // A repeating task scheduled from this thread may still be on its way to the main thread
+            runOnMainThread(() -> TickDriver.cancel(taskName));
+        }
 
-        ScheduledFuture<?> scheduledFuture = scheduledTasks.remove(taskName);
-        if (scheduledFuture != null && !scheduledFuture.isDone()) {
-            scheduledFuture.cancel(true);
+        PlatformScheduler.Task scheduled = scheduledTasks.remove(taskName);
+        if (scheduled != null) {
+            scheduled.cancel();
             cancelled = true;
         }
 
@@ -203,12 +348,35 @@ public class ThreadUtil {
      */
     public static void runOnMainThread(Runnable task) {
         if (plugin.isEnabled()) {
-            Bukkit.getScheduler().runTask(plugin, task);
+            Schedulers.get().runGlobal(task);
         } else {
             Bukkit.getLogger().warning("[SimpleTabList] Cannot run task on main thread, plugin is disabled");
         }
     }
 
+    /**
+     * Run a task on the Bukkit main thread, merged with an earlier submission of the same key
+     * that has not run yet
+     * @param key Key describing the work
+     * @param task The task to run on the main thread
+     */
+    public static void runOnMainThreadKeyed(String key, Runnable task) {
+        if (!pendingMainKeys.add(key)) {
+            merged.incrementAndGet();
+            return;
+        }
+
+        if (plugin.isEnabled()) {
+            Schedulers.get().runGlobal(() -> {
+                pendingMainKeys.remove(key);
+                task.run();
+            });
+        } else {
+            pendingMainKeys.remove(key);
+            Bukkit.getLogger().warning("[SimpleTabList] Cannot run task on main thread, plugin is disabled");
+        }
+    }
+
     /**
      * Run a task on the Bukkit main thread after a delay
      * @param task The task to run
@@ -216,8 +384,32 @@ public class ThreadUtil {
      */
     public static void runLaterOnMainThread(Runnable task, long delayTicks) {
         if (plugin.isEnabled()) {
-            Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+            Schedulers.get().runGlobalLater(task, delayTicks);
+        } else {
+            Bukkit.getLogger().warning("[SimpleTabList] Cannot run delayed task on main thread, plugin is disabled");
+        }
+    }
+
+    /**
+     * Run a task on the Bukkit main thread after a delay, merged with an earlier submission of the same key
+     * that has not run yet
+     * @param key Key describing the work
+     * @param task The task to run
+     * @param delayTicks Delay in server ticks
+     */
+    public static void runLaterOnMainThreadKeyed(String key, Runnable task, long delayTicks) {
+        if (!pendingMainKeys.add(key)) {
+            merged.incrementAndGet();
+            return;
+        }
+
+        if (plugin.isEnabled()) {
+            Schedulers.get().runGlobalLater(() -> {
+                pendingMainKeys.remove(key);
+                task.run();
+            }, delayTicks);
         } else {
+            pendingMainKeys.remove(key);
             Bukkit.getLogger().warning("[SimpleTabList] Cannot run delayed task on main thread, plugin is disabled");
         }
     }
@@ -235,10 +427,8 @@ public class ThreadUtil {
      */
     public static void shutdown() {
         // Cancel all scheduled tasks
-        for (ScheduledFuture<?> future : scheduledTasks.values()) {
-            if (!future.isDone()) {
-                future.cancel(false);
-            }
+        for (PlatformScheduler.Task scheduled : scheduledTasks.values()) {
+            scheduled.cancel();
         }
         scheduledTasks.clear();
 
@@ -249,6 +439,8 @@ public class ThreadUtil {
             }
         }
         runningTasks.clear();
+        pendingKeys.clear();
+        pendingMainKeys.clear();
 
         // Shutdown executors gracefully
         if (executor != null && !executor.isShutdown()) {
@@ -262,17 +454,6 @@ public class ThreadUtil {
             }
         }
 
-        if (scheduledExecutor != null && !scheduledExecutor.isShutdown()) {
-            scheduledExecutor.shutdown();
-            try {
-                if (!scheduledExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    scheduledExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                scheduledExecutor.shutdownNow();
-            }
-        }
-
         executorsShutdown = true;
         Bukkit.getLogger().info("[SimpleTabList] Thread utilities shutdown gracefully");
     }
@@ -282,8 +463,8 @@ public class ThreadUtil {
      */
     public static void forceShutdown() {
         // Cancel all tasks
-        for (ScheduledFuture<?> future : scheduledTasks.values()) {
-            future.cancel(true);
+        for (PlatformScheduler.Task scheduled : scheduledTasks.values()) {
+            scheduled.cancel();
         }
         scheduledTasks.clear();
 
@@ -291,20 +472,68 @@ public class ThreadUtil {
             future.cancel(true);
         }
         runningTasks.clear();
+        pendingKeys.clear();
+        pendingMainKeys.clear();
 
         // Force shutdown of executors
         if (executor != null && !executor.isShutdown()) {
             executor.shutdownNow();
         }
 
-        if (scheduledExecutor != null && !scheduledExecutor.isShutdown()) {
-            scheduledExecutor.shutdownNow();
-        }
-
         executorsShutdown = true;
         Bukkit.getLogger().info("[SimpleTabList] Thread utilities force shutdown complete");
     }
 
+    private static void recordLatency(long nanos) {
+        // Exponential moving average, races between workers only lose a sample
+        long average = averageLatencyNanos;
+        averageLatencyNanos = average == 0 ? nanos : average + (nanos - average) / 16;
+    }
+
+    private static void trackDepth() {
+        int depth = getQueueDepth();
+        int max = maxQueueDepth.get();
+        while (depth > max && !maxQueueDepth.compareAndSet(max, depth)) {
+            max = maxQueueDepth.get();
+        }
+    }
+
+    /**
+     * @return Number of tasks waiting for a worker thread
+     */
+    public static int getQueueDepth() {
+        ExecutorService current = executor;
+        return current instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) current).getQueue().size() : 0;
+    }
+
+    public static int getQueueCapacity() { return queueCapacity; }
+
+    /**
+     * @return "virtual" if async tasks run on virtual threads, otherwise "platform"
+     */
+    public static String getExecutorMode() { return virtualThreads ? "virtual" : "platform"; }
+
+    /**
+     * @return Number of async tasks currently running on virtual threads
+     */
+    public static int getRunningVirtualTasks() { return runningVirtual.get(); }
+    public static int getMaxQueueDepth() { return maxQueueDepth.get(); }
+    public static long getSubmittedTasks() { return submitted.get(); }
+    public static long getMergedTasks() { return merged.get(); }
+    public static long getRejectedTasks() { return rejected.get(); }
+
+    /**
+     * @return Number of tasks that ran on the submitting thread because the queue was full
+     */
+    public static long getCallerRunsTasks() { return callerRan.get(); }
+
+    /**
+     * @return Average time tasks waited in the queue, in milliseconds
+     */
+    public static double getAverageQueueLatencyMillis() {
+        return averageLatencyNanos / 1_000_000.0;
+    }
+
     /**
      * Check if the executor service is shutdown
      * @return True if the executor is shutdown
@@ -0,0 +1,150 @@
+package de.sesosas.simpletablist.api.utils;
+
+import de.sesosas.simpletablist.api.scheduler.PlatformScheduler;
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.config.CurrentConfig;
+import de.sesosas.simpletablist.render.RenderPipeline;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * The plugin's only repeating main-thread task. Every tick it runs the repeating tasks that are due
+ * (intervals and cache maintenance) and then renders queued players until the tick budget is used up.
+ * All methods must be called on the main thread (the global region thread on Folia), except getTick, schedule
+ * and cancel. Tasks always run on the main thread.
+ */
+public class TickDriver {
+
+    private static PlatformScheduler.Task task;
+    private static volatile long tick = 0;
+    // Guarded by its own lock, schedule and cancel may be called from any thread
+    private static final Map<String, Repeating> tasks = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private static final class Repeating {
+        private final Runnable runnable;
+        private final long period;
+        private final boolean scaled;
+        private long nextTick;
+
+        private Repeating(Runnable runnable, long nextTick, long period, boolean scaled) {
+            this.runnable = runnable;
+            this.nextTick = nextTick;
+            this.period = period;
+            this.scaled = scaled;
+        }
+    }
+
+    /**
+     * Start the driver, tasks scheduled before this start running on the next tick
+     * @param plugin The plugin instance
+     */
+    public static void start(Plugin plugin) {
+        if (task != null) {
+            return;
+        }
+        task = Schedulers.get().runGlobalTimer(TickDriver::tick, 1L, 1L);
+    }
+
+    /**
+     * Stop the driver and forget all repeating tasks
+     */
+    public static void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        tasks.clear();
+        TickWatchdog.reset();
+    }
+
+    /**
+     * Run a task repeatedly, replacing any task with the same name
+     * @param name Name to identify the task
+     * @param runnable The task to run
+     * @param firstTick Tick of the first run, see getTick
+     * @param period Ticks between runs
+     */
+    public static void schedule(String name, Runnable runnable, long firstTick, long period) {
+        schedule(name, runnable, firstTick, period, false);
+    }
+
+    /**
+     * Run a task repeatedly, replacing any task with the same name
+     * @param name Name to identify the task
+     * @param runnable The task to run
+     * @param firstTick Tick of the first run, see getTick
+     * @param period Ticks between runs
+     * @param scaled True to stretch the period while the TickWatchdog lowers the refresh quality
+     */
+    public static void schedule(String name, Runnable runnable, long firstTick, long period, boolean scaled) {
+        tasks.put(name, new Repeating(runnable, Math.max(firstTick, tick + 1), Math.max(1L, period), scaled));
+    }
+
+    /**
+     * Cancel a repeating task
+     * @return True if the task existed
+     */
+    public static boolean cancel(String name) {
+        return tasks.remove(name) != null;
+    }
+
+    /**
+     * @return Number of ticks the driver has run, the next tick run is getTick() + 1. Safe to call from any thread.
+     */
+    public static long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return Per-tick render budget in nanoseconds
+     */
+    private static long budgetNanos() {
+        return Math.max(1, CurrentConfig.getInt("Performance.Tick.Budget")) * 1_000_000L;
+    }
+
+    private static void tick() {
+        tick++;
+        long started = TickWatchdog.begin();
+        try {
+            long deadline = started + budgetNanos();
+            TickWatchdog.onTick(started);
+
+            // Changes marked during the last tick are rendered now, after their events completed
+            RenderPipeline.beginTick();
+
+            // Tasks may schedule or cancel tasks while running
+            List<Map.Entry<String, Repeating>> due = new ArrayList<>();
+            synchronized (tasks) {
+                for (Map.Entry<String, Repeating> entry : tasks.entrySet()) {
+                    if (entry.getValue().nextTick <= tick) {
+                        due.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+                    }
+                }
+            }
+            for (Map.Entry<String, Repeating> entry : due) {
+                Repeating repeating = entry.getValue();
+                if (tasks.get(entry.getKey()) != repeating) {
+                    continue;
+                }
+                repeating.nextTick = tick + repeating.period * (repeating.scaled ? TickWatchdog.getLevel().getFactor() : 1);
+                try {
+                    repeating.runnable.run();
+                } catch (Exception e) {
+                    Bukkit.getLogger().log(Level.SEVERE, "[SimpleTabList] Error in repeating task: " + entry.getKey(), e);
+                }
+            }
+
+            RenderPipeline.drain(deadline);
+        } finally {
+            TickWatchdog.end(started);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package de.sesosas.simpletablist.api.utils;
+
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.config.CurrentConfig;
+import org.bukkit.Bukkit;
+
+import java.lang.reflect.Method;
+
+/**
+ * Watches the plugin's own main-thread time and the server's tick time, and lowers the refresh quality
+ * while either is above its configured threshold. Evaluated once per second by the TickDriver.
+ */
+public class TickWatchdog {
+
+    /**
+     * Refresh quality, each level slows intervals down by its factor
+     */
+    public enum Level {
+        /** Everything runs at the configured rate */
+        NORMAL(1),
+        /** Intervals and animations run at half rate */
+        REDUCED(2),
+        /** Intervals and animations run at quarter rate, idle sidebars are only checked every few refreshes */
+        MINIMAL(4);
+
+        private final int factor;
+
+        Level(int factor) {
+            this.factor = factor;
+        }
+
+        public int getFactor() {
+            return factor;
+        }
+    }
+
+    private static final int TICKS_PER_EVALUATION = 20;
+    // Seconds below the thresholds before stepping back up
+    private static final int RECOVERY_EVALUATIONS = 5;
+    // Load has to fall below this share of a threshold to count as recovered
+    private static final double RECOVERY_RATIO = 0.8;
+
+    // Only touched on the main thread
+    private static Level level = Level.NORMAL;
+    private static long workNanos = 0;
+    private static long intervalNanos = 0;
+    private static long lastTickStart = 0;
+    private static int ticks = 0;
+    private static int recovered = 0;
+    private static int depth = 0;
+
+    private static volatile double pluginMillis = 0;
+    private static volatile double serverMspt = -1;
+
+    private static volatile boolean resolved = false;
+    private static volatile Method averageTickTime;
+
+    /**
+     * Count main-thread time spent by the plugin
+     */
+    public static void record(long nanos) {
+        workNanos += nanos;
+    }
+
+    /**
+     * Start measuring main-thread work. Measurements may nest, e.g. a forced render inside a TickDriver task,
+     * only the outermost one is counted.
+     * @return Start time to pass to end()
+     */
+    public static long begin() {
+        depth++;
+        return Schedulers.clock().nanoTime();
+    }
+
+    /**
+     * Finish a measurement started with begin()
+     */
+    public static void end(long started) {
+        if (--depth == 0) {
+            record(Schedulers.clock().nanoTime() - started);
+        }
+    }
+
+    /**
+     * Called by the TickDriver at the start of every tick
+     */
+    static void onTick(long now) {
+        if (lastTickStart != 0) {
+            intervalNanos += now - lastTickStart;
+            ticks++;
+        }
+        lastTickStart = now;
+
+        if (ticks >= TICKS_PER_EVALUATION) {
+            evaluate();
+        }
+    }
+
+    private static void evaluate() {
+        pluginMillis = workNanos / (double) ticks / 1_000_000.0;
+        double measured = readServerMspt();
+        if (measured < 0) {
+            // Without a tick time API only lag is visible: ticks arriving later than every 50 ms
+            double interval = intervalNanos / (double) ticks / 1_000_000.0;
+            measured = interval > 52.0 ? interval : -1;
+        }
+        serverMspt = measured;
+
+        workNanos = 0;
+        intervalNanos = 0;
+        ticks = 0;
+
+        if (!CurrentConfig.getBoolean("Performance.Watchdog.Enable")) {
+            transition(Level.NORMAL);
+            return;
+        }
+
+        Level target = Level.NORMAL;
+        if (above(pluginMillis, serverMspt, "Minimal", 1.0)) {
+            target = Level.MINIMAL;
+        } else if (above(pluginMillis, serverMspt, "Reduced", 1.0)) {
+            target = Level.REDUCED;
+        }
+
+        if (target.ordinal() > level.ordinal()) {
+            recovered = 0;
+            transition(target);
+            return;
+        }
+
+        // Step back up one level at a time, once the load stayed clearly below the current level's thresholds
+        String current = level == Level.MINIMAL ? "Minimal" : "Reduced";
+        if (level != Level.NORMAL && !above(pluginMillis, serverMspt, current, RECOVERY_RATIO)) {
+            if (++recovered >= RECOVERY_EVALUATIONS) {
+                recovered = 0;
+                transition(Level.values()[level.ordinal() - 1]);
+            }
+        } else {
+            recovered = 0;
+        }
+    }
+
+    private static boolean above(double plugin, double server, String threshold, double ratio) {
+        double pluginLimit = CurrentConfig.config().getDouble("Performance.Watchdog.PluginMillis." + threshold);
+        double serverLimit = CurrentConfig.config().getDouble("Performance.Watchdog.ServerMspt." + threshold);
+        return (pluginLimit > 0 && plugin >= pluginLimit * ratio)
+                || (serverLimit > 0 && server >= 0 && server >= serverLimit * ratio);
+    }
+
+    private static void transition(Level target) {
+        if (target == level) {
+            return;
+        }
+
+        Level previous = level;
+        level = target;
+        Bukkit.getLogger().info(String.format("[SimpleTabList] Refresh quality %s -> %s (plugin %.2f ms/tick, server %s)",
+                previous, target, pluginMillis, serverMspt >= 0 ? String.format("%.1f mspt", serverMspt) : "mspt unknown"));
+    }
+
+    /**
+     * Average tick time reported by the server (Paper), or -1 if the server has no such API
+     */
+    private static double readServerMspt() {
+        if (!resolved) {
+            try {
+                averageTickTime = Bukkit.getServer().getClass().getMethod("getAverageTickTime");
+            } catch (NoSuchMethodException ignored) {
+                // Spigot, fall back to the measured tick interval
+            }
+            resolved = true;
+        }
+
+        if (averageTickTime != null) {
+            try {
+                return ((Number) averageTickTime.invoke(Bukkit.getServer())).doubleValue();
+            } catch (Exception ignored) {
+                averageTickTime = null;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return to full quality and forget all measurements
+     */
+    public static void reset() {
+        level = Level.NORMAL;
+        workNanos = 0;
+        intervalNanos = 0;
+        lastTickStart = 0;
+        ticks = 0;
+        recovered = 0;
+    }
+
+    public static Level getLevel() { return level; }
+    public static double getPluginMillis() { return pluginMillis; }
+
+    /**
+     * @return Server milliseconds per tick, or -1 if unknown
+     */
+    public static double getServerMspt() { return serverMspt; }
+}
@@ -0,0 +1,231 @@
+package de.sesosas.simpletablist.api.utils;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage timings for /stl timings. While disabled, start() returns 0 and stop() does nothing, so an instrumented
+ * stage costs one volatile read. Latencies go into histograms with four buckets per power of two (at most 25% off),
+ * which is exact enough for percentiles and needs no locking on the render threads.
+ * <p>
+ * Usage: {@code long started = Timings.start(); ...; Timings.stop(Timings.Stage.APPLY, started, uuid);}
+ */
+public class Timings {
+
+    /**
+     * Measured stages. Team sorting runs inside the packet apply, color translation inside template renders.
+     */
+    public enum Stage {
+        PLACEHOLDERS("PlaceholderAPI"),
+        ANIMATIONS("Animations"),
+        TEMPLATE("Template render"),
+        COLORS("Color translation"),
+        SIDEBAR("Sidebar build"),
+        APPLY("Packet apply"),
+        SORTING("Team sorting"),
+        PLAYER_DATA("PlayerDataCache load");
+
+        private final String displayName;
+
+        Stage(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            buckets.incrementAndGet(bucket(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+    }
+
+    // Four sub-buckets for each power of two up to 2^41 ns (about 36 minutes)
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 42 * SUB_BUCKETS;
+    // Bound for the per-player totals, in case renders still in flight add players back after they quit
+    private static final int MAX_PLAYERS = 10_000;
+
+    private static volatile boolean enabled = false;
+    private static volatile long sinceNanos = System.nanoTime();
+    private static volatile Histogram[] histograms = newHistograms();
+    private static volatile Map<UUID, LongAdder> playerNanos = new ConcurrentHashMap<>();
+
+    /**
+     * @return Start time to pass to stop(), 0 while disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record a stage that is not attributed to a player
+     * @param started The value returned by start()
+     */
+    public static void stop(Stage stage, long started) {
+        if (started != 0L) {
+            histograms[stage.ordinal()].record(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Record a stage and add its time to a player's total. Only pass the player for stages that do not run
+     * inside another measured stage of the same player, so nothing is counted twice.
+     * @param started The value returned by start()
+     */
+    public static void stop(Stage stage, long started, UUID player) {
+        if (started != 0L) {
+            long nanos = System.nanoTime() - started;
+            histograms[stage.ordinal()].record(nanos);
+            LongAdder total = playerNanos.get(player);
+            if (total == null) {
+                if (playerNanos.size() >= MAX_PLAYERS) {
+                    return;
+                }
+                total = playerNanos.computeIfAbsent(player, uuid -> new LongAdder());
+            }
+            total.add(nanos);
+        }
+    }
+
+    /**
+     * Forget a player's total, called when the player quits
+     */
+    public static void forget(UUID player) {
+        playerNanos.remove(player);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn the timings on or off. Turning them on starts from zero.
+     */
+    public static void setEnabled(boolean enable) {
+        if (enable && !enabled) {
+            reset();
+        }
+        enabled = enable;
+    }
+
+    /**
+     * Forget everything measured so far
+     */
+    public static void reset() {
+        histograms = newHistograms();
+        playerNanos = new ConcurrentHashMap<>();
+        sinceNanos = System.nanoTime();
+    }
+
+    /**
+     * @return Seconds since the timings were enabled or reset
+     */
+    public static double getSeconds() {
+        return Math.max(1e-3, (System.nanoTime() - sinceNanos) / 1e9);
+    }
+
+    public static long getCount(Stage stage) {
+        return histograms[stage.ordinal()].count.sum();
+    }
+
+    public static double getCallsPerSecond(Stage stage) {
+        return getCount(stage) / getSeconds();
+    }
+
+    public static double getAverageMillis(Stage stage) {
+        Histogram histogram = histograms[stage.ordinal()];
+        long count = histogram.count.sum();
+        return count == 0 ? 0 : histogram.totalNanos.sum() / (double) count / 1e6;
+    }
+
+    public static double getMaxMillis(Stage stage) {
+        return histograms[stage.ordinal()].maxNanos.get() / 1e6;
+    }
+
+    /**
+     * @param percentile Between 0 and 100, e.g. 99
+     * @return Upper bound of the bucket holding the percentile, in milliseconds
+     */
+    public static double getPercentileMillis(Stage stage, double percentile) {
+        Histogram histogram = histograms[stage.ordinal()];
+        long count = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = histogram.buckets.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), histogram.maxNanos.get()) / 1e6;
+            }
+        }
+        return histogram.maxNanos.get() / 1e6;
+    }
+
+    /**
+     * @return Up to limit players with the most measured time, slowest first, in milliseconds
+     */
+    public static List<Map.Entry<UUID, Double>> getSlowestPlayers(int limit) {
+        List<Map.Entry<UUID, Double>> players = new ArrayList<>();
+        for (Map.Entry<UUID, LongAdder> entry : playerNanos.entrySet()) {
+            players.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue().sum() / 1e6));
+        }
+        players.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        return players.size() > limit ? new ArrayList<>(players.subList(0, limit)) : players;
+    }
+
+    private static Histogram[] newHistograms() {
+        Histogram[] created = new Histogram[Stage.values().length];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = new Histogram();
+        }
+        return created;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - 2)) - SUB_BUCKETS;
+        return Math.min(BUCKETS - 1, exponent * SUB_BUCKETS + sub);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int exponent = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (exponent - 2);
+    }
+}
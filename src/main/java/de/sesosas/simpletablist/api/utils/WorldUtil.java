@@ -8,8 +8,12 @@ import org.bukkit.configuration.file.FileConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class WorldUtil {
+    private static final Map<String, FileConfiguration> worldConfigs = new ConcurrentHashMap<>();
+
     public static void GenerateWorldConfig() {
         for (World world : Bukkit.getWorlds()) {
             String configPath = "worlds/" + world.getName();
@@ -33,14 +37,26 @@ public class WorldUtil {
                     Bukkit.getLogger().severe("Error saving world configuration for " + world.getName());
                     e.printStackTrace();
                 }
+                worldConfigs.remove(world.getName());
             }
         }
     }
 
     public static Object GetWorldConfig(World world, String path) {
-        String configPath = "worlds/" + world.getName();
-        CustomConfig cf = new CustomConfig().setup(configPath);
-        FileConfiguration con = cf.get();
+        FileConfiguration con = worldConfigs.get(world.getName());
+        if (con == null) {
+            String configPath = "worlds/" + world.getName();
+            CustomConfig cf = new CustomConfig().setup(configPath);
+            con = cf.get();
+            worldConfigs.put(world.getName(), con);
+        }
         return con.get(path);
     }
+
+    /**
+     * Forgets the loaded world configs so they are read from disk again
+     */
+    public static void clearCache() {
+        worldConfigs.clear();
+    }
 }
@@ -0,0 +1,194 @@
+package de.sesosas.simpletablist.cache;
+
+import de.sesosas.simpletablist.render.RenderPipeline;
+import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.user.User;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Online, per-world and per-group player counts, maintained from join/quit/world change and LuckPerms events.
+ * Reading a count never iterates the player list.
+ */
+public class OnlineCounter {
+
+    private static final AtomicInteger online = new AtomicInteger();
+    private static final Map<String, AtomicInteger> worlds = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> groups = new ConcurrentHashMap<>();
+
+    // What each online player is currently counted as
+    private static final Map<UUID, String> playerWorlds = new ConcurrentHashMap<>();
+    private static final Map<UUID, Set<String>> playerGroups = new ConcurrentHashMap<>();
+
+    /**
+     * Count all players that are currently online from scratch
+     */
+    public static synchronized void rebuild() {
+        online.set(0);
+        worlds.clear();
+        groups.clear();
+        playerWorlds.clear();
+        playerGroups.clear();
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            add(player);
+        }
+    }
+
+    /**
+     * Start counting a player that joined
+     */
+    public static synchronized void join(Player player) {
+        if (!playerWorlds.containsKey(player.getUniqueId())) {
+            add(player);
+            RenderPipeline.markAllDirty();
+        }
+    }
+
+    /**
+     * Stop counting a player that quit
+     */
+    public static synchronized void quit(UUID uuid) {
+        String world = playerWorlds.remove(uuid);
+        if (world == null) {
+            return;
+        }
+
+        online.decrementAndGet();
+        decrement(worlds, world);
+        Set<String> oldGroups = playerGroups.remove(uuid);
+        if (oldGroups != null) {
+            for (String group : oldGroups) {
+                decrement(groups, group);
+            }
+        }
+        RenderPipeline.markAllDirty();
+    }
+
+    /**
+     * Move a player to the world it is in now
+     */
+    public static synchronized void changeWorld(Player player) {
+        UUID uuid = player.getUniqueId();
+        String world = key(player.getWorld().getName());
+        String oldWorld = playerWorlds.get(uuid);
+        if (oldWorld == null || oldWorld.equals(world)) {
+            return;
+        }
+
+        decrement(worlds, oldWorld);
+        increment(worlds, world);
+        playerWorlds.put(uuid, world);
+        RenderPipeline.markAllDirty();
+    }
+
+    /**
+     * Re-read the LuckPerms groups of a player after its permission data changed
+     */
+    public static synchronized void refreshGroups(UUID uuid) {
+        Set<String> oldGroups = playerGroups.get(uuid);
+        if (oldGroups == null) {
+            return;
+        }
+
+        Set<String> newGroups = loadGroups(uuid);
+        if (newGroups.equals(oldGroups)) {
+            return;
+        }
+
+        for (String group : oldGroups) {
+            if (!newGroups.contains(group)) {
+                decrement(groups, group);
+            }
+        }
+        for (String group : newGroups) {
+            if (!oldGroups.contains(group)) {
+                increment(groups, group);
+            }
+        }
+        playerGroups.put(uuid, newGroups);
+        RenderPipeline.markAllDirty();
+    }
+
+    /**
+     * Re-read the LuckPerms groups of all online players, e.g. after a group's inheritance changed
+     */
+    public static synchronized void refreshAllGroups() {
+        for (UUID uuid : playerGroups.keySet()) {
+            refreshGroups(uuid);
+        }
+    }
+
+    private static void add(Player player) {
+        UUID uuid = player.getUniqueId();
+        String world = key(player.getWorld().getName());
+        Set<String> playerGroupSet = loadGroups(uuid);
+
+        online.incrementAndGet();
+        increment(worlds, world);
+        for (String group : playerGroupSet) {
+            increment(groups, group);
+        }
+
+        playerWorlds.put(uuid, world);
+        playerGroups.put(uuid, playerGroupSet);
+    }
+
+    /**
+     * All groups a player is in, including inherited ones
+     */
+    private static Set<String> loadGroups(UUID uuid) {
+        try {
+            User user = LuckPermsProvider.get().getUserManager().getUser(uuid);
+            if (user == null) {
+                return Collections.emptySet();
+            }
+
+            Set<String> result = new HashSet<>();
+            for (Group group : user.getInheritedGroups(user.getQueryOptions())) {
+                result.add(key(group.getName()));
+            }
+            return result;
+        } catch (Exception e) {
+            return Collections.emptySet();
+        }
+    }
+
+    private static void increment(Map<String, AtomicInteger> counts, String key) {
+        counts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static void decrement(Map<String, AtomicInteger> counts, String key) {
+        AtomicInteger count = counts.get(key);
+        if (count != null && count.decrementAndGet() <= 0) {
+            counts.remove(key);
+        }
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase();
+    }
+
+    public static int getOnline() {
+        return online.get();
+    }
+
+    public static int getWorldOnline(String world) {
+        AtomicInteger count = worlds.get(key(world));
+        return count != null ? count.get() : 0;
+    }
+
+    public static int getGroupOnline(String group) {
+        AtomicInteger count = groups.get(key(group));
+        return count != null ? count.get() : 0;
+    }
+}
@@ -1,5 +1,7 @@
 package de.sesosas.simpletablist.cache;
 
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.api.utils.Timings;
 import net.luckperms.api.LuckPermsProvider;
 import net.luckperms.api.model.user.User;
 import net.luckperms.api.cacheddata.CachedMetaData;
@@ -32,7 +34,7 @@ public class PlayerDataCache {
             this.groupWeight = groupWeight;
             this.prefix = prefix != null ? prefix : "";
             this.suffix = suffix != null ? suffix : "";
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = Schedulers.clock().currentTimeMillis();
         }
 
         public String getGroupName() { return groupName; }
@@ -41,7 +43,7 @@ public class PlayerDataCache {
         public String getSuffix() { return suffix; }
 
         public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_TTL;
+            return Schedulers.clock().currentTimeMillis() - timestamp > CACHE_TTL;
         }
     }
 
@@ -66,7 +68,15 @@ public class PlayerDataCache {
      */
     public static CachedPlayerData refreshPlayerData(Player player) {
         UUID uuid = player.getUniqueId();
+        long started = Timings.start();
+        try {
+            return loadPlayerData(uuid);
+        } finally {
+            Timings.stop(Timings.Stage.PLAYER_DATA, started, uuid);
+        }
+    }
 
+    private static CachedPlayerData loadPlayerData(UUID uuid) {
         try {
             User user = LuckPermsProvider.get().getUserManager().getUser(uuid);
             if (user == null) {
@@ -1,140 +1,313 @@
 package de.sesosas.simpletablist.cache;
 
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
+
 import java.util.Map;
-import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 /**
- * Cache for scoreboard states to avoid unnecessary updates
+ * Cache for scoreboard states to avoid unnecessary updates.
+ * Only 64-bit content fingerprints are kept, so a steady-state check is a single long comparison.
+ * <p>
+ * The fingerprints are hashed from the rendered text on every apply instead of being maintained incrementally:
+ * the render already produced the whole string, hashing it costs about as much as comparing it, and a text is
+ * built from placeholders, animations and functions that could not be tracked one by one.
+ * <p>
+ * The claim methods compare and store a field in one atomic step, so two threads applying to the same player
+ * never both send the same value or lose one. Sidebar lines are updated under the state's lock.
  */
 public class ScoreboardStateCache {
 
     private static final Map<UUID, PlayerScoreboardState> cache = new ConcurrentHashMap<>();
 
     /**
-     * Current scoreboard state of a player
+     * Fingerprints of what was last sent to a player
      */
     public static class PlayerScoreboardState {
-        private final String displayName;
-        private final String header;
-        private final String footer;
-        private final String teamName;
-        private final int hashCode;
-
-        public PlayerScoreboardState(String displayName, String header, String footer, String teamName) {
-            this.displayName = displayName;
-            this.header = header;
-            this.footer = footer;
-            this.teamName = teamName;
-            this.hashCode = Objects.hash(displayName, header, footer, teamName);
-        }
+        private volatile long displayName = FingerprintUtil.NONE;
+        private volatile long header = FingerprintUtil.NONE;
+        private volatile long footer = FingerprintUtil.NONE;
+        private volatile long teamName = FingerprintUtil.NONE;
+        private volatile long sidebarTitle = FingerprintUtil.NONE;
+        private volatile long[] sidebarLines = new long[0];
 
-        public String getDisplayName() { return displayName; }
-        public String getHeader() { return header; }
-        public String getFooter() { return footer; }
-        public String getTeamName() { return teamName; }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            PlayerScoreboardState that = (PlayerScoreboardState) o;
-            return Objects.equals(displayName, that.displayName) &&
-                    Objects.equals(header, that.header) &&
-                    Objects.equals(footer, that.footer) &&
-                    Objects.equals(teamName, that.teamName);
-        }
+        public long getDisplayName() { return displayName; }
+        public long getHeader() { return header; }
+        public long getFooter() { return footer; }
+        public long getTeamName() { return teamName; }
+        public long getSidebarTitle() { return sidebarTitle; }
+        public int getSidebarLineCount() { return sidebarLines.length; }
+    }
+
+    private static final AtomicLongFieldUpdater<PlayerScoreboardState> DISPLAY_NAME =
+            AtomicLongFieldUpdater.newUpdater(PlayerScoreboardState.class, "displayName");
+    private static final AtomicLongFieldUpdater<PlayerScoreboardState> HEADER =
+            AtomicLongFieldUpdater.newUpdater(PlayerScoreboardState.class, "header");
+    private static final AtomicLongFieldUpdater<PlayerScoreboardState> FOOTER =
+            AtomicLongFieldUpdater.newUpdater(PlayerScoreboardState.class, "footer");
+    private static final AtomicLongFieldUpdater<PlayerScoreboardState> TEAM_NAME =
+            AtomicLongFieldUpdater.newUpdater(PlayerScoreboardState.class, "teamName");
+
+    private static boolean claim(AtomicLongFieldUpdater<PlayerScoreboardState> field, UUID playerId, long value) {
+        PlayerScoreboardState state = state(playerId);
+        long current;
+        do {
+            current = field.get(state);
+            if (current == value) {
+                return false;
+            }
+        } while (!field.compareAndSet(state, current, value));
+        return true;
+    }
 
-        @Override
-        public int hashCode() {
-            return hashCode;
+    private static PlayerScoreboardState state(UUID playerId) {
+        PlayerScoreboardState state = cache.get(playerId);
+        if (state == null) {
+            state = cache.computeIfAbsent(playerId, id -> new PlayerScoreboardState());
         }
+        return state;
     }
 
     /**
      * Checks if an update is needed and stores new state
      * @return true if update needed, false if identical to cache
      */
-    public static boolean shouldUpdate(UUID playerId, String displayName, String header, String footer, String teamName) {
-        PlayerScoreboardState newState = new PlayerScoreboardState(displayName, header, footer, teamName);
-        PlayerScoreboardState cached = cache.get(playerId);
+    public static boolean shouldUpdate(UUID playerId, long displayName, long header, long footer, long teamName) {
+        PlayerScoreboardState state = state(playerId);
 
-        // No cache entry or different = update needed
-        if (cached == null || !cached.equals(newState)) {
-            cache.put(playerId, newState);
-            return true;
+        synchronized (state) {
+            if (state.displayName == displayName && state.header == header
+                    && state.footer == footer && state.teamName == teamName) {
+                return false;
+            }
+
+            state.displayName = displayName;
+            state.header = header;
+            state.footer = footer;
+            state.teamName = teamName;
         }
+        return true;
+    }
+
+    /**
+     * Checks if an update is needed and stores new state
+     * @return true if update needed, false if identical to cache
+     */
+    public static boolean shouldUpdate(UUID playerId, String displayName, String header, String footer, String teamName) {
+        return shouldUpdate(playerId, FingerprintUtil.of(displayName), FingerprintUtil.of(header),
+                FingerprintUtil.of(footer), FingerprintUtil.of(teamName));
+    }
 
-        return false;
+    /**
+     * Checks if DisplayName update is needed
+     */
+    public static boolean shouldUpdateDisplayName(UUID playerId, long displayName) {
+        PlayerScoreboardState cached = cache.get(playerId);
+        return cached == null || cached.displayName != displayName;
     }
 
     /**
      * Checks if DisplayName update is needed
      */
     public static boolean shouldUpdateDisplayName(UUID playerId, String displayName) {
+        return shouldUpdateDisplayName(playerId, FingerprintUtil.of(displayName));
+    }
+
+    /**
+     * Checks if Header update is needed
+     */
+    public static boolean shouldUpdateHeader(UUID playerId, long header) {
         PlayerScoreboardState cached = cache.get(playerId);
-        return cached == null || !Objects.equals(cached.displayName, displayName);
+        return cached == null || cached.header != header;
     }
 
     /**
      * Checks if Header update is needed
      */
     public static boolean shouldUpdateHeader(UUID playerId, String header) {
+        return shouldUpdateHeader(playerId, FingerprintUtil.of(header));
+    }
+
+    /**
+     * Checks if Footer update is needed
+     */
+    public static boolean shouldUpdateFooter(UUID playerId, long footer) {
         PlayerScoreboardState cached = cache.get(playerId);
-        return cached == null || !Objects.equals(cached.header, header);
+        return cached == null || cached.footer != footer;
     }
 
     /**
      * Checks if Footer update is needed
      */
     public static boolean shouldUpdateFooter(UUID playerId, String footer) {
+        return shouldUpdateFooter(playerId, FingerprintUtil.of(footer));
+    }
+
+    /**
+     * Checks if team assignment is needed
+     */
+    public static boolean shouldUpdateTeam(UUID playerId, long teamName) {
         PlayerScoreboardState cached = cache.get(playerId);
-        return cached == null || !Objects.equals(cached.footer, footer);
+        return cached == null || cached.teamName != teamName;
+    }
+
+    /**
+     * Checks if the sidebar title update is needed
+     */
+    public static boolean shouldUpdateSidebarTitle(UUID playerId, long title) {
+        PlayerScoreboardState cached = cache.get(playerId);
+        return cached == null || cached.sidebarTitle != title;
+    }
+
+    /**
+     * Checks if a sidebar line update is needed
+     */
+    public static boolean shouldUpdateSidebarLine(UUID playerId, int index, long line) {
+        PlayerScoreboardState cached = cache.get(playerId);
+        return cached == null || index >= cached.sidebarLines.length || cached.sidebarLines[index] != line;
+    }
+
+    /**
+     * Stores the DisplayName fingerprint if it differs from the cached one, in one atomic step
+     * @return true if it changed and has to be sent
+     */
+    public static boolean claimDisplayName(UUID playerId, long displayName) {
+        return claim(DISPLAY_NAME, playerId, displayName);
+    }
+
+    /**
+     * Stores the Header fingerprint if it differs from the cached one, in one atomic step
+     * @return true if it changed and has to be sent
+     */
+    public static boolean claimHeader(UUID playerId, long header) {
+        return claim(HEADER, playerId, header);
+    }
+
+    /**
+     * Stores the Footer fingerprint if it differs from the cached one, in one atomic step
+     * @return true if it changed and has to be sent
+     */
+    public static boolean claimFooter(UUID playerId, long footer) {
+        return claim(FOOTER, playerId, footer);
+    }
+
+    /**
+     * Stores the team name fingerprint if it differs from the cached one, in one atomic step
+     * @return true if it changed and the player has to be reassigned
+     */
+    public static boolean claimTeam(UUID playerId, long teamName) {
+        return claim(TEAM_NAME, playerId, teamName);
+    }
+
+    /**
+     * Updates only DisplayName in cache
+     */
+    public static void updateDisplayName(UUID playerId, long displayName) {
+        state(playerId).displayName = displayName;
     }
 
     /**
      * Updates only DisplayName in cache
      */
     public static void updateDisplayName(UUID playerId, String displayName) {
-        PlayerScoreboardState cached = cache.get(playerId);
-        if (cached != null) {
-            cache.put(playerId, new PlayerScoreboardState(
-                    displayName, cached.header, cached.footer, cached.teamName
-            ));
-        } else {
-            cache.put(playerId, new PlayerScoreboardState(displayName, "", "", ""));
-        }
+        updateDisplayName(playerId, FingerprintUtil.of(displayName));
+    }
+
+    /**
+     * Updates only Header in cache
+     */
+    public static void updateHeader(UUID playerId, long header) {
+        state(playerId).header = header;
     }
 
     /**
      * Updates only Header in cache
      */
     public static void updateHeader(UUID playerId, String header) {
+        updateHeader(playerId, FingerprintUtil.of(header));
+    }
+
+    /**
+     * Updates only Footer in cache
+     */
+    public static void updateFooter(UUID playerId, long footer) {
+        state(playerId).footer = footer;
+    }
+
+    /**
+     * Updates only Footer in cache
+     */
+    public static void updateFooter(UUID playerId, String footer) {
+        updateFooter(playerId, FingerprintUtil.of(footer));
+    }
+
+    /**
+     * Updates only team name in cache
+     */
+    public static void updateTeam(UUID playerId, long teamName) {
+        state(playerId).teamName = teamName;
+    }
+
+    /**
+     * Updates the sidebar title and line count in cache.
+     * Lines beyond the new count are forgotten, new slots start unknown.
+     */
+    public static void updateSidebarTitle(UUID playerId, long title, int lineCount) {
+        PlayerScoreboardState state = state(playerId);
+        synchronized (state) {
+            state.sidebarTitle = title;
+            if (state.sidebarLines.length != lineCount) {
+                long[] lines = new long[lineCount];
+                System.arraycopy(state.sidebarLines, 0, lines, 0, Math.min(lineCount, state.sidebarLines.length));
+                state.sidebarLines = lines;
+            }
+        }
+    }
+
+    /**
+     * Updates a single sidebar line in cache
+     */
+    public static void updateSidebarLine(UUID playerId, int index, long line) {
+        PlayerScoreboardState state = state(playerId);
+        synchronized (state) {
+            if (index < state.sidebarLines.length) {
+                state.sidebarLines[index] = line;
+            }
+        }
+    }
+
+    /**
+     * Forgets the sidebar state, forcing a full rebuild on the next update
+     */
+    public static void resetSidebar(UUID playerId) {
         PlayerScoreboardState cached = cache.get(playerId);
         if (cached != null) {
-            cache.put(playerId, new PlayerScoreboardState(
-                    cached.displayName, header, cached.footer, cached.teamName
-            ));
-        } else {
-            cache.put(playerId, new PlayerScoreboardState("", header, "", ""));
+            synchronized (cached) {
+                cached.sidebarTitle = FingerprintUtil.NONE;
+                cached.sidebarLines = new long[0];
+            }
         }
     }
 
     /**
-     * Updates only Footer in cache
+     * Forgets the team state, forcing a reassignment on the next update
      */
-    public static void updateFooter(UUID playerId, String footer) {
+    public static void resetTeam(UUID playerId) {
         PlayerScoreboardState cached = cache.get(playerId);
         if (cached != null) {
-            cache.put(playerId, new PlayerScoreboardState(
-                    cached.displayName, cached.header, footer, cached.teamName
-            ));
-        } else {
-            cache.put(playerId, new PlayerScoreboardState("", "", footer, ""));
+            cached.teamName = FingerprintUtil.NONE;
         }
     }
 
+    /**
+     * Returns the cached state of a player, or null
+     */
+    public static PlayerScoreboardState get(UUID playerId) {
+        return cache.get(playerId);
+    }
+
     /**
      * Removes player from cache
      */
@@ -155,4 +328,4 @@ public class ScoreboardStateCache {
     public static int size() {
         return cache.size();
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package de.sesosas.simpletablist.classes.scoreboard;
 
 import de.sesosas.simpletablist.animation.AnimationManager;
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
 import de.sesosas.simpletablist.api.utils.StringUtil;
 import de.sesosas.simpletablist.api.utils.WorldUtil;
+import de.sesosas.simpletablist.cache.ScoreboardStateCache;
 import de.sesosas.simpletablist.config.CurrentConfig;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -14,52 +16,67 @@ import java.util.List;
  */
 public class DetailsClass {
 
-    public static synchronized void updateTab(Player player) {
+    /**
+     * Renders and applies header and footer for a single player. Must be called on the main thread.
+     */
+    public static void updateTab(Player player) {
         try {
-            if (!CurrentConfig.getBoolean("Worlds.Enable")) {
-                updateTabForWorld(player, (List<String>) CurrentConfig.getList("Header.Content"), (List<String>) CurrentConfig.getList("Footer.Content"));
-            } else {
-                List<String> headerContent = (List<String>) WorldUtil.GetWorldConfig(player.getWorld(), "Header.Content");
-                List<String> footerContent = (List<String>) WorldUtil.GetWorldConfig(player.getWorld(), "Footer.Content");
+            String header = StringUtil.Convert(getTemplate(player, true), player);
+            String footer = StringUtil.Convert(getTemplate(player, false), player);
 
-                updateTabForWorld(player, headerContent, footerContent);
-            }
+            applyHeader(player, header, FingerprintUtil.of(header));
+            applyFooter(player, footer, FingerprintUtil.of(footer));
         } catch (Exception e) {
             Bukkit.getLogger().warning("[SimpleTabList] Found an error at Header or Footer config section! Please make sure there are lists with content!");
             Bukkit.getLogger().warning("[SimpleTabList] Error details: " + e.getMessage());
         }
     }
 
-    private static void updateTabForWorld(Player player, List<String> headerContent, List<String> footerContent) {
-        updateTabContent(player, "Header", headerContent, true);
-        updateTabContent(player, "Footer", footerContent, false);
-    }
+    /**
+     * Gets the header or footer template for a player with animations already applied.
+     * Returns an empty string if the section is disabled.
+     */
+    public static String getTemplate(Player player, boolean isHeader) {
+        String section = isHeader ? "Header" : "Footer";
 
-    private static void updateTabContent(Player player, String section, List<String> contentList, boolean isHeader) {
-        if (CurrentConfig.getBoolean(section + ".Enable") && contentList != null) {
-            String contentString = buildContentString(contentList, isHeader);
+        if (!CurrentConfig.getBoolean(section + ".Enable")) {
+            return "";
+        }
 
-            // Process animations using new AnimationManager
-            String processedContent = AnimationManager.processAnimations(contentString);
+        List<?> contentList;
+        if (!CurrentConfig.getBoolean("Worlds.Enable")) {
+            contentList = CurrentConfig.getList(section + ".Content");
+        } else {
+            contentList = (List<?>) WorldUtil.GetWorldConfig(player.getWorld(), section + ".Content");
+        }
 
-            // Process placeholders and colors
-            String finalContent = StringUtil.Convert(processedContent, player);
+        if (contentList == null) {
+            return "";
+        }
 
-            if (isHeader) {
-                player.setPlayerListHeader(finalContent);
-            } else {
-                player.setPlayerListFooter(finalContent);
-            }
-        } else {
-            if (isHeader) {
-                player.setPlayerListHeader("");
-            } else {
-                player.setPlayerListFooter("");
-            }
+        // Process animations using new AnimationManager
+        return AnimationManager.processAnimations(buildContentString(contentList, isHeader));
+    }
+
+    /**
+     * Sends the header only if its fingerprint differs from what the player already has
+     */
+    public static void applyHeader(Player player, String header, long fingerprint) {
+        if (ScoreboardStateCache.claimHeader(player.getUniqueId(), fingerprint)) {
+            player.setPlayerListHeader(header);
+        }
+    }
+
+    /**
+     * Sends the footer only if its fingerprint differs from what the player already has
+     */
+    public static void applyFooter(Player player, String footer, long fingerprint) {
+        if (ScoreboardStateCache.claimFooter(player.getUniqueId(), fingerprint)) {
+            player.setPlayerListFooter(footer);
         }
     }
 
-    private static String buildContentString(List<String> contentList, boolean isHeader) {
+    private static String buildContentString(List<?> contentList, boolean isHeader) {
         StringBuilder contentString = new StringBuilder();
         for (Object str : contentList) {
             if (isHeader) {
@@ -70,4 +87,4 @@ public class DetailsClass {
         }
         return contentString.toString();
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,12 @@
 package de.sesosas.simpletablist.classes.scoreboard;
 
-import de.sesosas.simpletablist.SimpleTabList;
 import de.sesosas.simpletablist.api.luckperms.Group;
 import de.sesosas.simpletablist.api.luckperms.Permission;
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
 import de.sesosas.simpletablist.api.utils.StringUtil;
+import de.sesosas.simpletablist.api.utils.Timings;
+import de.sesosas.simpletablist.cache.ScoreboardStateCache;
 import de.sesosas.simpletablist.config.CurrentConfig;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -21,6 +24,11 @@ public class NamesClass {
     private static final Map<Player, Scoreboard> originalScoreboards = new HashMap<>();
 
     public static void initScoreboard() {
+        if (Schedulers.isFolia()) {
+            // Folia has no main scoreboard, names are still formatted but not sorted
+            Bukkit.getLogger().warning("[SimpleTabList] Name sorting is not supported on Folia and stays disabled");
+            return;
+        }
         mainScoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
     }
 
@@ -36,11 +44,17 @@ public class NamesClass {
     }
 
     public static void sortPlayer(Player player) {
+        if (mainScoreboard == null) {
+            return;
+        }
+
         if (CurrentConfig.getBoolean("Names.Sorting.Enable")) {
             boolean isAscending = CurrentConfig.getBoolean("Names.Sorting.Ascending");
             String sortType = CurrentConfig.getString("Names.Sorting.Type");
 
+            long started = Timings.start();
             assignPlayerToTeam(player, sortType, isAscending);
+            Timings.stop(Timings.Stage.SORTING, started);
         } else {
             // If sorting is disabled, make sure we're not affecting the player's scoreboard
             restoreOriginalScoreboard(player);
@@ -48,6 +62,20 @@ public class NamesClass {
     }
 
     private static void assignPlayerToTeam(Player player, String sortType, boolean isAscending) {
+        String teamName = "STL";
+
+        if (sortType.equalsIgnoreCase("weight")) {
+            int playerWeight = Group.getPlayerGroupWeight(player);
+            int sortingPrefix = isAscending ? playerWeight : Integer.MAX_VALUE - playerWeight;
+            teamName = "STL_" + formatNumber(sortingPrefix);
+        }
+
+        // Skip the team scan entirely if the player already sits in this sorting slot
+        long fingerprint = FingerprintUtil.of(teamName);
+        if (!ScoreboardStateCache.claimTeam(player.getUniqueId(), fingerprint)) {
+            return;
+        }
+
         // Store original scoreboard if we haven't already
         if (!originalScoreboards.containsKey(player)) {
             originalScoreboards.put(player, player.getScoreboard());
@@ -56,18 +84,10 @@ public class NamesClass {
         // Remove player from any existing teams on the main scoreboard
         for (Team team : mainScoreboard.getTeams()) {
             if (team.hasEntry(player.getName())) {
-                Bukkit.getScheduler().runTask(SimpleTabList.getPlugin(), () -> team.removeEntry(player.getName()));
+                Schedulers.get().runGlobal(() -> team.removeEntry(player.getName()));
             }
         }
 
-        String teamName = "STL";
-
-        if (sortType.equalsIgnoreCase("weight")) {
-            int playerWeight = Group.getPlayerGroupWeight(player);
-            int sortingPrefix = isAscending ? playerWeight : Integer.MAX_VALUE - playerWeight;
-            teamName = "STL_" + formatNumber(sortingPrefix);
-        }
-
         // Ensure team name is unique and valid
         teamName = ensureValidTeamName(teamName, player);
 
@@ -77,7 +97,7 @@ public class NamesClass {
             team = mainScoreboard.registerNewTeam(teamName);
         }
         Team finalTeam = team;
-        Bukkit.getScheduler().runTask(SimpleTabList.getPlugin(), () -> finalTeam.addEntry(player.getName()));
+        Schedulers.get().runGlobal(() -> finalTeam.addEntry(player.getName()));
 
         // Important: we're NOT setting player.setScoreboard(scoreboard) here
         // That's what was causing the conflict with other plugins
@@ -119,6 +139,11 @@ public class NamesClass {
     }
 
     private static void restoreOriginalScoreboard(Player player) {
+        ScoreboardStateCache.resetTeam(player.getUniqueId());
+        if (mainScoreboard == null) {
+            return;
+        }
+
         // Remove player from STL teams
         for (Team team : mainScoreboard.getTeams()) {
             if (team.getName().startsWith("STL") && team.hasEntry(player.getName())) {
@@ -134,6 +159,10 @@ public class NamesClass {
     }
 
     private static void cleanupSTLTeams() {
+        if (mainScoreboard == null) {
+            return;
+        }
+
         // Clean up empty STL teams
         for (Team team : new ArrayList<>(mainScoreboard.getTeams())) {
             if (team.getName().startsWith("STL") && team.getEntries().isEmpty()) {
@@ -2,8 +2,10 @@ package de.sesosas.simpletablist.classes.scoreboard;
 
 import de.sesosas.simpletablist.animation.AnimationManager;
 import de.sesosas.simpletablist.api.luckperms.Permission;
-import de.sesosas.simpletablist.api.utils.StringUtil;
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.cache.ScoreboardStateCache;
 import de.sesosas.simpletablist.config.SidebarConfig;
+import de.sesosas.simpletablist.render.RenderPipeline;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
@@ -13,6 +15,8 @@ import org.bukkit.scoreboard.Score;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.ScoreboardManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -33,21 +37,27 @@ public class SidebarClass {
         isPerPlayerEnabled = SidebarConfig.getBoolean("Sidebar.PerPlayer.Enable");
         perPlayerPermission = SidebarConfig.getString("Sidebar.PerPlayer.Permission");
 
+        if (Schedulers.isFolia() && SidebarConfig.getBoolean("Sidebar.Enable")) {
+            // Folia can't give players their own scoreboard
+            Bukkit.getLogger().warning("[SimpleTabList] Sidebars are not supported on Folia and stay disabled");
+        }
+
         Bukkit.getLogger().info("[SimpleTabList] Sidebar manager initialized");
 
         // Initialize sidebars for all online players IMMEDIATELY
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            updateSidebar(player);
-        }
+        RenderPipeline.update(Bukkit.getOnlinePlayers(), RenderPipeline.SIDEBAR);
         Bukkit.getLogger().info("[SimpleTabList] Initialized sidebars for " + Bukkit.getOnlinePlayers().size() + " players");
     }
 
-    private static boolean shouldHaveSidebar(Player player) {
+    /**
+     * Check if a player should currently see a sidebar. Must be called on the main thread.
+     */
+    public static boolean shouldHaveSidebar(Player player) {
         if (disabledSidebars.contains(player.getUniqueId())) {
             return false;
         }
 
-        if (!SidebarConfig.getBoolean("Sidebar.Enable")) {
+        if (!SidebarConfig.getBoolean("Sidebar.Enable") || Schedulers.isFolia()) {
             return false;
         }
 
@@ -63,14 +73,91 @@ public class SidebarClass {
         return true;
     }
 
+    /**
+     * Render and apply the sidebar of a single player
+     */
     public static void updateSidebar(Player player) {
-        if (!shouldHaveSidebar(player)) {
-            removeSidebar(player);
-            return;
+        RenderPipeline.update(Collections.singletonList(player), RenderPipeline.SIDEBAR);
+    }
+
+    /**
+     * Gets the sidebar title template of a world with animations already applied
+     */
+    public static String getTitleTemplate(String worldName) {
+        String title;
+
+        if (SidebarConfig.getBoolean("Sidebar.PerWorld.Enable") &&
+                SidebarConfig.getWorldValue(worldName, "Sidebar.Title") != null) {
+            title = SidebarConfig.getWorldString(worldName, "Sidebar.Title");
+        } else {
+            title = SidebarConfig.getString("Sidebar.Title");
         }
 
+        return AnimationManager.processAnimations(title);
+    }
+
+    /**
+     * Gets the sidebar line templates of a world with animations already applied
+     */
+    public static List<String> getLineTemplates(String worldName) {
+        List<String> lines;
+        if (SidebarConfig.getBoolean("Sidebar.PerWorld.Enable") &&
+                SidebarConfig.getWorldValue(worldName, "Sidebar.Lines") != null) {
+            lines = SidebarConfig.getWorldStringList(worldName, "Sidebar.Lines");
+        } else {
+            lines = SidebarConfig.getStringList("Sidebar.Lines");
+        }
+
+        if (lines == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> processed = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            processed.add(AnimationManager.processAnimations(line));
+        }
+        return processed;
+    }
+
+    public static String getBlankLineChar() {
+        String blankLineChar = SidebarConfig.getString("Sidebar.Format.BlankLineChar");
+        if (blankLineChar == null || blankLineChar.isEmpty()) {
+            blankLineChar = " ";
+        }
+        return blankLineChar;
+    }
+
+    public static boolean isLineSpacing() {
+        return SidebarConfig.getBoolean("Sidebar.Format.LineSpacing");
+    }
+
+    /**
+     * Turn a rendered line into a unique scoreboard entry, safe to call from any thread
+     * @return The entry, or null if the line should be left out
+     */
+    public static String formatLine(String processedLine, int score, String blankLineChar, boolean lineSpacing) {
+        if (processedLine.length() <= 2 && processedLine.startsWith("&")) {
+            processedLine = blankLineChar;
+        }
+
+        if (lineSpacing && !processedLine.equals(blankLineChar)) {
+            processedLine = " " + processedLine + " ";
+        }
+
+        if (processedLine.length() > 0) {
+            return makeLineUnique(processedLine, score);
+        }
+        return null;
+    }
+
+    /**
+     * Push a rendered sidebar to a player, touching the scoreboard only if something changed.
+     * Must be called on the main thread.
+     */
+    public static void applySidebar(Player player, String title, long titleFingerprint, String[] lines, long[] lineFingerprints) {
         try {
-            Scoreboard scoreboard = playerScoreboards.get(player.getUniqueId());
+            UUID playerId = player.getUniqueId();
+            Scoreboard scoreboard = playerScoreboards.get(playerId);
 
             if (scoreboard == null) {
                 ScoreboardManager manager = Bukkit.getScoreboardManager();
@@ -80,69 +167,54 @@ public class SidebarClass {
                 }
 
                 scoreboard = manager.getNewScoreboard();
-                playerScoreboards.put(player.getUniqueId(), scoreboard);
+                playerScoreboards.put(playerId, scoreboard);
                 player.setScoreboard(scoreboard);
+                ScoreboardStateCache.resetSidebar(playerId);
             }
 
-            Objective oldObjective = scoreboard.getObjective("stlsidebar");
-            if (oldObjective != null) {
-                oldObjective.unregister();
+            int lineCount = lines.length;
+            ScoreboardStateCache.PlayerScoreboardState cachedState = ScoreboardStateCache.get(playerId);
+            boolean linesChanged = cachedState == null || cachedState.getSidebarLineCount() != lineCount;
+            for (int i = 0; i < lineCount && !linesChanged; i++) {
+                if (ScoreboardStateCache.shouldUpdateSidebarLine(playerId, i, lineFingerprints[i])) {
+                    linesChanged = true;
+                }
             }
 
-            String worldName = player.getWorld().getName();
-            String title;
+            boolean titleChanged = ScoreboardStateCache.shouldUpdateSidebarTitle(playerId, titleFingerprint);
+            Objective sidebar = scoreboard.getObjective("stlsidebar");
 
-            if (SidebarConfig.getBoolean("Sidebar.PerWorld.Enable") &&
-                    SidebarConfig.getWorldValue(worldName, "Sidebar.Title") != null) {
-                title = SidebarConfig.getWorldString(worldName, "Sidebar.Title");
-            } else {
-                title = SidebarConfig.getString("Sidebar.Title");
+            // Nothing visible changed - leave the objective untouched
+            if (sidebar != null && !titleChanged && !linesChanged) {
+                return;
             }
 
-            // Process title: placeholders first, then animations
-            title = StringUtil.Convert(title, player);
-            title = AnimationManager.processAnimations(title);
-
-            Objective sidebar = scoreboard.registerNewObjective("stlsidebar", "dummy", title);
-            sidebar.setDisplaySlot(DisplaySlot.SIDEBAR);
-
-            List<String> lines;
-            if (SidebarConfig.getBoolean("Sidebar.PerWorld.Enable") &&
-                    SidebarConfig.getWorldValue(worldName, "Sidebar.Lines") != null) {
-                lines = SidebarConfig.getWorldStringList(worldName, "Sidebar.Lines");
-            } else {
-                lines = SidebarConfig.getStringList("Sidebar.Lines");
+            // Only the title changed - rename instead of rebuilding every score
+            if (sidebar != null && !linesChanged) {
+                sidebar.setDisplayName(title);
+                ScoreboardStateCache.updateSidebarTitle(playerId, titleFingerprint, lineCount);
+                return;
             }
 
-            if (lines != null && !lines.isEmpty()) {
-                String blankLineChar = SidebarConfig.getString("Sidebar.Format.BlankLineChar");
-                if (blankLineChar == null || blankLineChar.isEmpty()) {
-                    blankLineChar = " ";
-                }
-
-                boolean lineSpacing = SidebarConfig.getBoolean("Sidebar.Format.LineSpacing");
-
-                int score = lines.size();
-                for (String line : lines) {
-                    // Process placeholders and colors first, then animations
-                    String processedLine = StringUtil.Convert(line, player);
-                    processedLine = AnimationManager.processAnimations(processedLine);
-
-                    if (processedLine.length() <= 2 && processedLine.startsWith("&")) {
-                        processedLine = blankLineChar;
-                    }
+            if (sidebar != null) {
+                sidebar.unregister();
+            }
 
-                    if (lineSpacing && !processedLine.equals(blankLineChar)) {
-                        processedLine = " " + processedLine + " ";
-                    }
+            sidebar = scoreboard.registerNewObjective("stlsidebar", "dummy", title);
+            sidebar.setDisplaySlot(DisplaySlot.SIDEBAR);
 
-                    if (processedLine.length() > 0) {
-                        String uniqueLine = makeLineUnique(processedLine, score);
-                        Score lineScore = sidebar.getScore(uniqueLine);
-                        lineScore.setScore(score);
-                    }
-                    score--;
+            int score = lineCount;
+            for (String uniqueLine : lines) {
+                if (uniqueLine != null) {
+                    Score lineScore = sidebar.getScore(uniqueLine);
+                    lineScore.setScore(score);
                 }
+                score--;
+            }
+
+            ScoreboardStateCache.updateSidebarTitle(playerId, titleFingerprint, lineCount);
+            for (int i = 0; i < lineCount; i++) {
+                ScoreboardStateCache.updateSidebarLine(playerId, i, lineFingerprints[i]);
             }
         } catch (Exception e) {
             Bukkit.getLogger().warning("[SimpleTabList] Error updating sidebar for " + player.getName() + ": " + e.getMessage());
@@ -177,6 +249,8 @@ public class SidebarClass {
     }
 
     public static void removeSidebar(Player player) {
+        ScoreboardStateCache.resetSidebar(player.getUniqueId());
+
         try {
             Scoreboard scoreboard = playerScoreboards.get(player.getUniqueId());
             if (scoreboard != null) {
@@ -230,5 +304,6 @@ public class SidebarClass {
 
     public static void handlePlayerQuit(Player player) {
         playerScoreboards.remove(player.getUniqueId());
+        ScoreboardStateCache.resetSidebar(player.getUniqueId());
     }
 }
\ No newline at end of file
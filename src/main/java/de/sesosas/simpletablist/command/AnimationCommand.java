@@ -1,6 +1,7 @@
 package de.sesosas.simpletablist.command;
 
 import de.sesosas.simpletablist.animation.AnimationManager;
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
 import net.md_5.bungee.api.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -166,8 +167,7 @@ public class AnimationCommand implements CommandExecutor {
             final int frameIndex = i;
             final String frame = ChatColor.translateAlternateColorCodes('&', frames.get(i));
 
-            org.bukkit.Bukkit.getScheduler().runTaskLater(
-                    org.bukkit.Bukkit.getPluginManager().getPlugin("SimpleTabList"),
+            Schedulers.get().runGlobalLater(
                     () -> player.sendMessage(ChatColor.GRAY + "Frame " + frameIndex + ": " + frame),
                     i * 10L
             );
@@ -4,10 +4,18 @@ import de.sesosas.simpletablist.SimpleTabList;
 import de.sesosas.simpletablist.animation.AnimationManager;
 import de.sesosas.simpletablist.classes.ScoreboardClass;
 import de.sesosas.simpletablist.cache.PlayerDataCache;
+import de.sesosas.simpletablist.cache.ScoreboardStateCache;
 import de.sesosas.simpletablist.config.CurrentConfig;
 import de.sesosas.simpletablist.config.SidebarConfig;
 import de.sesosas.simpletablist.api.classes.AInterval;
+import de.sesosas.simpletablist.api.utils.ColorTranslator;
 import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.api.utils.WorldUtil;
+import de.sesosas.simpletablist.event.EventTrace;
+import de.sesosas.simpletablist.placeholder.PlaceholderCache;
+import de.sesosas.simpletablist.placeholder.PlaceholderWorker;
+import de.sesosas.simpletablist.render.RenderPipeline;
+import de.sesosas.simpletablist.render.Template;
 import de.sesosas.simpletablist.utils.MessageSender;
 import net.md_5.bungee.api.ChatColor;
 import org.bukkit.Bukkit;
@@ -27,53 +35,54 @@ import java.io.File;
 public class ReloadCommand implements CommandExecutor {
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String s, @NotNull String[] strings) {
-        if (sender instanceof Player) {
-            Player player = (Player) sender;
-
-            // Clear player data cache before reload
-            int cacheSize = PlayerDataCache.size();
-            PlayerDataCache.clearAll();
-
-            // Reload main config
-            File file = new File(SimpleTabList.getPlugin().getDataFolder().getAbsolutePath() + "/config.yml");
-            FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
-            SimpleTabList.getPlugin().config = cfg;
-
-            // Reload sidebar config
-            SidebarConfig.reloadConfig();
-
-            // Reload animations
-            AnimationManager.reload();
-
-            // Stop and restart intervals with new configuration
-            AInterval.stopAllIntervals();
-            AInterval.startAllIntervals(SimpleTabList.getPlugin());
-
-            // Update all scoreboards (will rebuild cache)
-            ThreadUtil.runOnMainThread(ScoreboardClass::Update);
+        int cacheSize = reload(SimpleTabList.getPlugin().getDataFolder());
 
+        if (sender instanceof Player) {
             // Send confirmation message
             String text = "Successfully reloaded all configurations! Cleared " + cacheSize + " cached entries.";
-            MessageSender.Send(player, ChatColor.AQUA + text);
+            MessageSender.Send((Player) sender, ChatColor.AQUA + text);
         } else {
-            // Console reload
-            int cacheSize = PlayerDataCache.size();
-            PlayerDataCache.clearAll();
+            Bukkit.getLogger().info("[SimpleTabList] All configurations reloaded successfully! Cleared " + cacheSize + " cached entries.");
+        }
+        return true;
+    }
 
-            File file = new File(SimpleTabList.getPlugin().getDataFolder().getAbsolutePath() + "/config.yml");
-            FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
-            SimpleTabList.getPlugin().config = cfg;
+    /**
+     * Reload all configurations and clear the caches that depend on them
+     * @param dataFolder Folder with config.yml
+     * @return Number of cleared player data cache entries
+     */
+    public static int reload(File dataFolder) {
+        EventTrace.record(EventTrace.Type.RELOAD, null, null, null);
 
-            SidebarConfig.reloadConfig();
-            AnimationManager.reload();
+        // Clear player data cache before reload
+        int cacheSize = PlayerDataCache.size();
+        PlayerDataCache.clearAll();
+        ScoreboardStateCache.clearAll();
 
-            AInterval.stopAllIntervals();
-            AInterval.startAllIntervals(SimpleTabList.getPlugin());
+        // Reload main config
+        File file = new File(dataFolder, "config.yml");
+        FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
+        CurrentConfig.replace(cfg);
+        WorldUtil.clearCache();
+        PlaceholderWorker.loadConfig();
+        PlaceholderCache.loadConfig();
+        Template.clearCache();
+        ColorTranslator.clearCache();
+        RenderPipeline.clearState();
 
-            ThreadUtil.runOnMainThread(ScoreboardClass::Update);
+        // Reload sidebar config
+        SidebarConfig.reloadConfig();
 
-            Bukkit.getLogger().info("[SimpleTabList] All configurations reloaded successfully! Cleared " + cacheSize + " cached entries.");
-        }
-        return true;
+        // Reload animations
+        AnimationManager.reload();
+
+        // Stop and restart intervals with new configuration
+        AInterval.stopAllIntervals();
+        AInterval.startAllIntervals(SimpleTabList.getPlugin());
+
+        // Update all scoreboards (will rebuild cache)
+        ThreadUtil.runOnMainThread(ScoreboardClass::Update);
+        return cacheSize;
     }
-}
\ No newline at end of file
+}
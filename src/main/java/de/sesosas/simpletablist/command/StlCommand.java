@@ -0,0 +1,179 @@
+package de.sesosas.simpletablist.command;
+
+import de.sesosas.simpletablist.SimpleTabList;
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.api.utils.ExecutorFactory;
+import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.api.utils.TickWatchdog;
+import de.sesosas.simpletablist.api.utils.Timings;
+import de.sesosas.simpletablist.event.EventTrace;
+import de.sesosas.simpletablist.render.RenderMemo;
+import de.sesosas.simpletablist.render.RenderPipeline;
+import net.md_5.bungee.api.ChatColor;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Command to inspect the plugin at runtime
+ */
+public class StlCommand implements CommandExecutor {
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
+        if (args.length == 0) {
+            sendHelp(sender);
+            return true;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "status":
+                showStatus(sender);
+                break;
+            case "trace":
+                handleTrace(sender, args);
+                break;
+            case "timings":
+                handleTimings(sender, args);
+                break;
+            default:
+                sendHelp(sender);
+                break;
+        }
+
+        return true;
+    }
+
+    private void sendHelp(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "" + ChatColor.BOLD + "=== SimpleTabList Commands ===");
+        sender.sendMessage(ChatColor.YELLOW + "/stl status" + ChatColor.GRAY + " - Show threads, queues and load");
+        sender.sendMessage(ChatColor.YELLOW + "/stl trace <start|stop>" + ChatColor.GRAY + " - Record joins, quits, teleports and LuckPerms changes for replaying");
+        sender.sendMessage(ChatColor.YELLOW + "/stl timings [on|off|reset]" + ChatColor.GRAY + " - Show the time spent in each render stage");
+    }
+
+    private void showStatus(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "" + ChatColor.BOLD + "=== SimpleTabList Status ===");
+
+        sender.sendMessage(ChatColor.GRAY + "Java: " + ChatColor.WHITE + ExecutorFactory.getJavaVersion()
+                + ChatColor.GRAY + ", async threads: " + ChatColor.WHITE + ThreadUtil.getExecutorMode()
+                + ChatColor.GRAY + ", scheduler: " + ChatColor.WHITE + (Schedulers.isFolia() ? "folia" : "bukkit"));
+
+        if (ThreadUtil.getExecutorMode().equals("virtual")) {
+            sender.sendMessage(ChatColor.GRAY + "Running tasks: " + ChatColor.WHITE + ThreadUtil.getRunningVirtualTasks()
+                    + ChatColor.GRAY + " / " + ChatColor.WHITE + ThreadUtil.getQueueCapacity());
+        } else {
+            sender.sendMessage(ChatColor.GRAY + "Queue: " + ChatColor.WHITE + ThreadUtil.getQueueDepth()
+                    + ChatColor.GRAY + " / " + ChatColor.WHITE + ThreadUtil.getQueueCapacity()
+                    + ChatColor.GRAY + " (max " + ChatColor.WHITE + ThreadUtil.getMaxQueueDepth() + ChatColor.GRAY + ")");
+        }
+
+        sender.sendMessage(ChatColor.GRAY + "Tasks: " + ChatColor.WHITE + ThreadUtil.getSubmittedTasks()
+                + ChatColor.GRAY + " submitted, " + ChatColor.WHITE + ThreadUtil.getMergedTasks()
+                + ChatColor.GRAY + " merged, " + ChatColor.WHITE + ThreadUtil.getRejectedTasks()
+                + ChatColor.GRAY + " rejected, " + ChatColor.WHITE + ThreadUtil.getCallerRunsTasks()
+                + ChatColor.GRAY + " ran by the caller, " + ChatColor.WHITE
+                + String.format("%.2f", ThreadUtil.getAverageQueueLatencyMillis()) + ChatColor.GRAY + " ms average wait");
+
+        double mspt = TickWatchdog.getServerMspt();
+        sender.sendMessage(ChatColor.GRAY + "Load: " + ChatColor.WHITE + TickWatchdog.getLevel()
+                + ChatColor.GRAY + ", plugin " + ChatColor.WHITE + String.format("%.2f", TickWatchdog.getPluginMillis())
+                + ChatColor.GRAY + " ms/tick, server " + ChatColor.WHITE
+                + (mspt >= 0 ? String.format("%.1f", mspt) + ChatColor.GRAY + " mspt" : "unknown"));
+
+        sender.sendMessage(ChatColor.GRAY + "Render queue: " + ChatColor.WHITE + RenderPipeline.getQueueSize()
+                + ChatColor.GRAY + " players, memo " + ChatColor.WHITE + RenderMemo.getHitRate() + "%"
+                + ChatColor.GRAY + " hit rate (" + ChatColor.WHITE + RenderMemo.size() + ChatColor.GRAY + " entries)");
+
+        if (EventTrace.isRecording()) {
+            sender.sendMessage(ChatColor.GRAY + "Trace: " + ChatColor.WHITE + EventTrace.getEvents()
+                    + ChatColor.GRAY + " events recorded to " + ChatColor.WHITE + EventTrace.getFile().getName());
+        }
+    }
+
+    private void handleTrace(CommandSender sender, String[] args) {
+        String action = args.length > 1 ? args[1].toLowerCase() : "";
+        switch (action) {
+            case "start":
+                if (SimpleTabList.startTrace()) {
+                    sender.sendMessage(ChatColor.GREEN + "Recording event trace to " + EventTrace.getFile().getName());
+                } else {
+                    sender.sendMessage(ChatColor.RED + (EventTrace.isRecording()
+                            ? "A trace is already being recorded" : "Could not create the trace file, see the console"));
+                }
+                break;
+            case "stop":
+                if (EventTrace.stop()) {
+                    sender.sendMessage(ChatColor.GREEN + "Recorded " + EventTrace.getEvents() + " events to " + EventTrace.getFile().getName());
+                } else {
+                    sender.sendMessage(ChatColor.RED + "No trace is being recorded");
+                }
+                break;
+            default:
+                sender.sendMessage(ChatColor.YELLOW + "/stl trace <start|stop>");
+                break;
+        }
+    }
+
+    private void handleTimings(CommandSender sender, String[] args) {
+        String action = args.length > 1 ? args[1].toLowerCase() : "";
+        switch (action) {
+            case "on":
+                Timings.setEnabled(true);
+                sender.sendMessage(ChatColor.GREEN + "Timings enabled");
+                return;
+            case "off":
+                Timings.setEnabled(false);
+                sender.sendMessage(ChatColor.GREEN + "Timings disabled");
+                return;
+            case "reset":
+                Timings.reset();
+                sender.sendMessage(ChatColor.GREEN + "Timings reset");
+                return;
+            case "":
+                showTimings(sender);
+                return;
+            default:
+                sender.sendMessage(ChatColor.YELLOW + "/stl timings [on|off|reset]");
+        }
+    }
+
+    private void showTimings(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "" + ChatColor.BOLD + "=== SimpleTabList Timings ===");
+        if (!Timings.isEnabled()) {
+            sender.sendMessage(ChatColor.GRAY + "Timings are off, turn them on with " + ChatColor.YELLOW + "/stl timings on");
+            return;
+        }
+
+        sender.sendMessage(ChatColor.GRAY + "Last " + ChatColor.WHITE + String.format("%.0f", Timings.getSeconds())
+                + ChatColor.GRAY + " seconds, p50 / p99 / max in ms:");
+        for (Timings.Stage stage : Timings.Stage.values()) {
+            if (Timings.getCount(stage) == 0) {
+                sender.sendMessage(ChatColor.GRAY + stage.getDisplayName() + ": " + ChatColor.DARK_GRAY + "no calls");
+                continue;
+            }
+            sender.sendMessage(ChatColor.GRAY + stage.getDisplayName() + ": " + ChatColor.WHITE
+                    + String.format("%.3f", Timings.getPercentileMillis(stage, 50)) + ChatColor.GRAY + " / " + ChatColor.WHITE
+                    + String.format("%.3f", Timings.getPercentileMillis(stage, 99)) + ChatColor.GRAY + " / " + ChatColor.WHITE
+                    + String.format("%.3f", Timings.getMaxMillis(stage)) + ChatColor.GRAY + ", " + ChatColor.WHITE
+                    + String.format("%.1f", Timings.getCallsPerSecond(stage)) + ChatColor.GRAY + " calls/s");
+        }
+
+        List<Map.Entry<UUID, Double>> slowest = Timings.getSlowestPlayers(5);
+        if (!slowest.isEmpty()) {
+            sender.sendMessage(ChatColor.GRAY + "Slowest players (placeholders, renders, apply and data loads):");
+            for (Map.Entry<UUID, Double> entry : slowest) {
+                Player player = Bukkit.getPlayer(entry.getKey());
+                String name = player != null ? player.getName() : entry.getKey().toString().substring(0, 8);
+                sender.sendMessage(ChatColor.GRAY + " " + name + ": " + ChatColor.WHITE
+                        + String.format("%.1f", entry.getValue()) + ChatColor.GRAY + " ms total");
+            }
+        }
+    }
+}
@@ -9,8 +9,31 @@ import java.util.List;
 
 public class CurrentConfig {
 
+    private static FileConfiguration override;
+
     public static FileConfiguration config() {
-        return SimpleTabList.getPlugin().config;
+        FileConfiguration current = override;
+        return current != null ? current : SimpleTabList.getPlugin().config;
+    }
+
+    /**
+     * Read settings from the given configuration instead of the plugin's, for benchmarks and simulations
+     * without a running plugin
+     * @param config The configuration, or null to use the plugin's again
+     */
+    public static void use(FileConfiguration config) {
+        override = config;
+    }
+
+    /**
+     * Replace the active configuration, e.g. after it was reloaded from disk
+     */
+    public static void replace(FileConfiguration config) {
+        if (override != null) {
+            override = config;
+        } else {
+            SimpleTabList.getPlugin().config = config;
+        }
     }
 
     public static String getString(String name){
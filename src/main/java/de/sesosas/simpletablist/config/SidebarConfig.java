@@ -25,7 +25,14 @@ public class SidebarConfig {
      * Load or initialize the sidebar configuration
      */
     public static void loadConfig() {
-        configFile = new File(SimpleTabList.getPlugin().getDataFolder(), "sidebar.yml");
+        loadConfig(SimpleTabList.getPlugin().getDataFolder());
+    }
+
+    /**
+     * Load or initialize the sidebar configuration of the given data folder
+     */
+    public static void loadConfig(File dataFolder) {
+        configFile = new File(dataFolder, "sidebar.yml");
 
         if (!configFile.exists()) {
             createDefaultConfig();
@@ -58,7 +65,7 @@ public class SidebarConfig {
 
             List<String> defaultLines = new ArrayList<>();
             defaultLines.add("&6&l➤ &fServer: &a%server_name%");
-            defaultLines.add("&6&l➤ &fPlayers: &a%server_online%/%server_max_players%");
+            defaultLines.add("&6&l➤ &fPlayers: &a[online]/%server_max_players%");
             defaultLines.add("&6&l➤ &fRank: &a%luckperms_prefix%");
             defaultLines.add("&6&l➤ &fHealth: &a%player_health%/%player_max_health%");
             defaultLines.add("&6&l➤ &fXP Level: &a%player_level%");
@@ -71,6 +78,7 @@ public class SidebarConfig {
             sidebarConfig.set("Sidebar.Lines", defaultLines);
             sidebarConfig.set("Sidebar.Refresh.Enable", true);
             sidebarConfig.set("Sidebar.Refresh.Interval", 2);
+            sidebarConfig.set("Sidebar.Refresh.Ticks", 0);
             sidebarConfig.set("Sidebar.PerWorld.Enable", true);
 
             // Add animation settings
@@ -111,7 +119,7 @@ public class SidebarConfig {
         if (!sidebarConfig.contains("Sidebar.Lines")) {
             List<String> defaultLines = new ArrayList<>();
             defaultLines.add("&6&l➤ &fServer: &a%server_name%");
-            defaultLines.add("&6&l➤ &fPlayers: &a%server_online%/%server_max_players%");
+            defaultLines.add("&6&l➤ &fPlayers: &a[online]/%server_max_players%");
             defaultLines.add("&6&l➤ &fRank: &a%luckperms_prefix%");
             defaultLines.add("&1");
             defaultLines.add("&ewww.yourserver.com");
@@ -130,6 +138,11 @@ public class SidebarConfig {
             changed = true;
         }
 
+        if (!sidebarConfig.contains("Sidebar.Refresh.Ticks")) {
+            sidebarConfig.set("Sidebar.Refresh.Ticks", 0);
+            changed = true;
+        }
+
         if (!sidebarConfig.contains("Sidebar.PerWorld.Enable")) {
             sidebarConfig.set("Sidebar.PerWorld.Enable", true);
             changed = true;
@@ -162,7 +175,7 @@ public class SidebarConfig {
     private static void loadWorldConfigs() {
         worldSidebarConfigs.clear();
 
-        File worldsFolder = new File(SimpleTabList.getPlugin().getDataFolder(), "worlds");
+        File worldsFolder = new File(configFile.getParentFile(), "worlds");
         if (!worldsFolder.exists()) {
             worldsFolder.mkdirs();
         }
@@ -195,7 +208,7 @@ public class SidebarConfig {
 
             List<String> worldLines = new ArrayList<>();
             worldLines.add("&6&l➤ &fWorld: &a" + world.getName());
-            worldLines.add("&6&l➤ &fPlayers: &a%world_players_" + world.getName() + "%");
+            worldLines.add("&6&l➤ &fPlayers: &a[world_online:" + world.getName() + "]");
             worldLines.add("&6&l➤ &fTime: &a{animation:1}");  // Animated time
             worldLines.add("&1");
             worldLines.add("&6&l➤ &fYour Location:");
@@ -0,0 +1,404 @@
+package de.sesosas.simpletablist.event;
+
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.api.utils.TickDriver;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/**
+ * Records the events the plugin reacts to (joins, quits, teleports, world changes, LuckPerms changes and reloads)
+ * with their TickDriver tick into a compact binary file, so a burst seen on a live server can be replayed against
+ * stub players. Ticks are counted rather than derived from the wall clock, so a lagging server records the ticks
+ * the events really fell into.
+ * <p>
+ * Format: the magic "STLT", a version byte and the start time in epoch milliseconds, followed by one record per
+ * event: the type, the ticks since the previous record and, depending on the type, a player and a world.
+ * Players and strings are written in full the first time and as an index after that.
+ */
+public class EventTrace {
+
+    /**
+     * Recorded event types, the ordinal is written to the file so new types have to be added at the end
+     */
+    public enum Type {
+        /** A player joined, with the world they joined in */
+        JOIN(true, true),
+        QUIT(true, false),
+        /** A player teleported, with the target world */
+        TELEPORT(true, true),
+        /** A player changed worlds, with the new world */
+        WORLD_CHANGE(true, true),
+        /** A node of a user was added or removed */
+        USER_NODE(true, false),
+        /** A node of a group was added or removed */
+        GROUP_NODE(false, false),
+        /** LuckPerms recalculated a user's data */
+        USER_RECALCULATE(true, false),
+        /** The configuration was reloaded */
+        RELOAD(false, false);
+
+        private final boolean player;
+        private final boolean world;
+
+        Type(boolean player, boolean world) {
+            this.player = player;
+            this.world = world;
+        }
+
+        public boolean hasPlayer() { return player; }
+        public boolean hasWorld() { return world; }
+    }
+
+    /**
+     * One recorded event
+     */
+    public static final class Entry {
+        private final long tick;
+        private final Type type;
+        private final UUID uuid;
+        private final String name;
+        private final String world;
+
+        private Entry(long tick, Type type, UUID uuid, String name, String world) {
+            this.tick = tick;
+            this.type = type;
+            this.uuid = uuid;
+            this.name = name;
+            this.world = world;
+        }
+
+        /** @return Ticks since the recording started */
+        public long getTick() { return tick; }
+        public Type getType() { return type; }
+        /** @return The player, or null for types without one */
+        public UUID getUniqueId() { return uuid; }
+        /** @return The player's name, empty if it was unknown */
+        public String getName() { return name; }
+        /** @return The world, or null for types without one */
+        public String getWorld() { return world; }
+    }
+
+    private static final int MAGIC = 0x53544C54;
+    private static final int VERSION = 1;
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    // Guarded by the class lock
+    private static File file;
+    private static ByteArrayOutputStream buffer;
+    private static volatile DataOutputStream out;
+    private static final Map<UUID, Integer> players = new HashMap<>();
+    private static final Map<String, Integer> strings = new HashMap<>();
+    private static long startMillis;
+    private static long startTick;
+    private static long lastTick;
+    private static long maxBytes;
+    private static long bytes;
+    private static int events;
+
+    // Filled chunks waiting to be appended to the file, written in order by one task at a time
+    private static final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private static final Object writeLock = new Object();
+    private static OutputStream fileOut;
+
+    /**
+     * Start recording into a file, replacing it if it exists
+     * @param target The trace file
+     * @param maxSize Size in bytes after which the recording stops, 0 = no limit
+     * @return False if already recording or the file could not be created
+     */
+    public static synchronized boolean start(File target, long maxSize) {
+        if (out != null) {
+            return false;
+        }
+
+        try {
+            File parent = target.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Could not create " + parent);
+            }
+            synchronized (writeLock) {
+                fileOut = new FileOutputStream(target);
+            }
+        } catch (IOException e) {
+            Bukkit.getLogger().log(Level.WARNING, "[SimpleTabList] Could not start event trace: " + target, e);
+            return false;
+        }
+
+        file = target;
+        maxBytes = maxSize;
+        buffer = new ByteArrayOutputStream(CHUNK_SIZE + 256);
+        out = new DataOutputStream(buffer);
+        players.clear();
+        strings.clear();
+        startMillis = Schedulers.clock().currentTimeMillis();
+        startTick = TickDriver.getTick();
+        lastTick = 0;
+        bytes = 0;
+        events = 0;
+
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(startMillis);
+        } catch (IOException ignored) {
+            // Writes to a byte array
+        }
+
+        Bukkit.getLogger().info("[SimpleTabList] Recording event trace to " + target.getPath());
+        return true;
+    }
+
+    /**
+     * Stop recording and write the rest of the trace
+     * @return False if no recording was running
+     */
+    public static synchronized boolean stop() {
+        if (out == null) {
+            return false;
+        }
+
+        pending.add(buffer.toByteArray());
+        bytes += buffer.size();
+        out = null;
+        buffer = null;
+        players.clear();
+        strings.clear();
+
+        // Written right away, the plugin may be shutting down
+        writePending();
+        synchronized (writeLock) {
+            try {
+                fileOut.close();
+            } catch (IOException e) {
+                Bukkit.getLogger().log(Level.WARNING, "[SimpleTabList] Could not close event trace", e);
+            }
+            fileOut = null;
+        }
+
+        Bukkit.getLogger().info("[SimpleTabList] Event trace stopped: " + events + " events, " + bytes + " bytes in " + file.getPath());
+        return true;
+    }
+
+    public static synchronized boolean isRecording() {
+        return out != null;
+    }
+
+    /**
+     * @return The file being recorded to, or the last one if stopped
+     */
+    public static synchronized File getFile() {
+        return file;
+    }
+
+    public static synchronized int getEvents() {
+        return events;
+    }
+
+    /**
+     * Record an event of a player that is online
+     */
+    public static void record(Type type, Player player) {
+        if (out == null) {
+            return;
+        }
+        record(type, player.getUniqueId(), player.getName(), type.hasWorld() ? player.getWorld().getName() : null);
+    }
+
+    /**
+     * Record an event
+     * @param uuid The player, ignored for types without one
+     * @param name The player's name, may be null if unknown
+     * @param world The world, ignored for types without one
+     */
+    public static void record(Type type, UUID uuid, String name, String world) {
+        if (out != null) {
+            write(type, uuid, name, world);
+        }
+    }
+
+    private static synchronized void write(Type type, UUID uuid, String name, String world) {
+        if (out == null) {
+            return;
+        }
+
+        long tick = TickDriver.getTick() - startTick;
+        try {
+            out.writeByte(type.ordinal());
+            writeVarLong(Math.max(0, tick - lastTick));
+            lastTick = Math.max(lastTick, tick);
+
+            if (type.hasPlayer()) {
+                Integer index = players.get(uuid);
+                if (index == null) {
+                    writeVarLong(players.size());
+                    out.writeLong(uuid.getMostSignificantBits());
+                    out.writeLong(uuid.getLeastSignificantBits());
+                    writeString(name != null ? name : "");
+                    players.put(uuid, players.size());
+                } else {
+                    writeVarLong(index);
+                }
+            }
+            if (type.hasWorld()) {
+                writeString(world != null ? world : "");
+            }
+        } catch (IOException ignored) {
+            // Writes to a byte array
+        }
+        events++;
+
+        if (buffer.size() >= CHUNK_SIZE) {
+            flush();
+        }
+    }
+
+    private static void flush() {
+        bytes += buffer.size();
+        pending.add(buffer.toByteArray());
+        buffer.reset();
+
+        if (maxBytes > 0 && bytes >= maxBytes) {
+            Bukkit.getLogger().warning("[SimpleTabList] Event trace reached its maximum size");
+            stop();
+            return;
+        }
+        ThreadUtil.submitKeyed("trace:write", EventTrace::writePending);
+    }
+
+    private static void writePending() {
+        synchronized (writeLock) {
+            byte[] chunk;
+            while ((chunk = pending.poll()) != null) {
+                if (fileOut == null) {
+                    continue;
+                }
+                try {
+                    fileOut.write(chunk);
+                } catch (IOException e) {
+                    Bukkit.getLogger().log(Level.WARNING, "[SimpleTabList] Could not write event trace", e);
+                }
+            }
+        }
+    }
+
+    private static void writeString(String value) throws IOException {
+        Integer index = strings.get(value);
+        if (index == null) {
+            writeVarLong(strings.size());
+            out.writeUTF(value);
+            strings.put(value, strings.size());
+        } else {
+            writeVarLong(index);
+        }
+    }
+
+    private static void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Read a trace file. A trace that ends in the middle of a record, e.g. after a crash, is read up to that record.
+     * @throws IOException If the file can not be read or is no trace
+     */
+    public static List<Entry> read(File trace) throws IOException {
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(trace))) {
+            return read(new DataInputStream(stream));
+        }
+    }
+
+    private static List<Entry> read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an event trace");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported event trace version " + version);
+        }
+        in.readLong();
+
+        List<Entry> entries = new ArrayList<>();
+        List<UUID> uuids = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<String> table = new ArrayList<>();
+        Type[] types = Type.values();
+        long tick = 0;
+
+        while (true) {
+            int ordinal = in.read();
+            if (ordinal < 0) {
+                break;
+            }
+            if (ordinal >= types.length) {
+                throw new IOException("Unknown event type " + ordinal);
+            }
+
+            try {
+                Type type = types[ordinal];
+                tick += readVarLong(in);
+
+                UUID uuid = null;
+                String name = null;
+                if (type.hasPlayer()) {
+                    int index = (int) readVarLong(in);
+                    if (index == uuids.size()) {
+                        uuids.add(new UUID(in.readLong(), in.readLong()));
+                        names.add(readString(in, table));
+                    }
+                    uuid = uuids.get(index);
+                    name = names.get(index);
+                }
+                String world = type.hasWorld() ? readString(in, table) : null;
+
+                entries.add(new Entry(tick, type, uuid, name, world));
+            } catch (EOFException e) {
+                break;
+            }
+        }
+        return entries;
+    }
+
+    private static String readString(DataInputStream in, List<String> table) throws IOException {
+        int index = (int) readVarLong(in);
+        if (index == table.size()) {
+            table.add(in.readUTF());
+        }
+        return table.get(index);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed event trace");
+    }
+}
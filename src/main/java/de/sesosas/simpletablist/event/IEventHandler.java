@@ -1,18 +1,30 @@
 package de.sesosas.simpletablist.event;
 
 import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.api.utils.Timings;
+import de.sesosas.simpletablist.cache.OnlineCounter;
 import de.sesosas.simpletablist.cache.PlayerDataCache;
+import de.sesosas.simpletablist.cache.ScoreboardStateCache;
 import de.sesosas.simpletablist.classes.ScoreboardClass;
 import de.sesosas.simpletablist.classes.scoreboard.SidebarClass;
+import de.sesosas.simpletablist.placeholder.PlaceholderCache;
+import de.sesosas.simpletablist.placeholder.PlaceholderWorker;
+import de.sesosas.simpletablist.render.RenderPipeline;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityRegainHealthEvent;
+import org.bukkit.event.entity.FoodLevelChangeEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerExpChangeEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLevelChangeEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 
-import java.util.concurrent.TimeUnit;
-
 /**
  * Event handler with cache management
  */
@@ -21,9 +33,11 @@ public class IEventHandler implements Listener {
     @EventHandler
     public void OnPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        EventTrace.record(EventTrace.Type.JOIN, player);
+        OnlineCounter.join(player);
 
         // Pre-load player data into cache
-        ThreadUtil.submitTask(() -> {
+        ThreadUtil.submitKeyed("preload:" + player.getUniqueId(), () -> {
             PlayerDataCache.refreshPlayerData(player);
         });
 
@@ -40,25 +54,78 @@ public class IEventHandler implements Listener {
 
     @EventHandler
     public void OnPlayerQuit(PlayerQuitEvent event) {
+        EventTrace.record(EventTrace.Type.QUIT, event.getPlayer());
+
         // Remove player from cache to free memory
         PlayerDataCache.invalidate(event.getPlayer());
+        ScoreboardStateCache.remove(event.getPlayer().getUniqueId());
+        PlaceholderWorker.invalidate(event.getPlayer().getUniqueId());
+        PlaceholderCache.invalidate(event.getPlayer().getUniqueId());
+        RenderPipeline.forget(event.getPlayer().getUniqueId());
+        Timings.forget(event.getPlayer().getUniqueId());
+        OnlineCounter.quit(event.getPlayer().getUniqueId());
 
         // Properly handle player quit for sidebar management
         SidebarClass.handlePlayerQuit(event.getPlayer());
-
-        // Update for remaining players
-        ThreadUtil.submitTask(ScoreboardClass::Update);
     }
 
-    @EventHandler
+    // Only teleports that really happen, after other plugins had the chance to cancel them
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void OnEntityPortalExitEvent(PlayerTeleportEvent event) {
-        ThreadUtil.submitTask(() -> {
-            try {
-                TimeUnit.SECONDS.sleep(1);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+        if (event.getTo() != null && event.getTo().getWorld() != null) {
+            EventTrace.record(EventTrace.Type.TELEPORT, event.getPlayer().getUniqueId(), event.getPlayer().getName(),
+                    event.getTo().getWorld().getName());
+        }
+
+        // Give the teleport a second to settle before re-rendering the player, world counts are
+        // updated by OnPlayerChangedWorld. Teleports of the same player within that second are merged.
+        Player player = event.getPlayer();
+        ThreadUtil.runLaterOnMainThreadKeyed("render:teleport:" + player.getUniqueId(), () -> {
+            if (player.isOnline()) {
+                RenderPipeline.markDirty(player);
             }
-            ScoreboardClass.Update();
-        });
+        }, 20L);
+    }
+
+    @EventHandler
+    public void OnPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        EventTrace.record(EventTrace.Type.WORLD_CHANGE, event.getPlayer());
+        OnlineCounter.changeWorld(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void OnPlayerDamage(EntityDamageEvent event) {
+        if (event.getEntity() instanceof Player) {
+            RenderPipeline.markDirty((Player) event.getEntity());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void OnPlayerRegainHealth(EntityRegainHealthEvent event) {
+        if (event.getEntity() instanceof Player) {
+            RenderPipeline.markDirty((Player) event.getEntity());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void OnFoodLevelChange(FoodLevelChangeEvent event) {
+        if (event.getEntity() instanceof Player) {
+            RenderPipeline.markDirty((Player) event.getEntity());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void OnPlayerExpChange(PlayerExpChangeEvent event) {
+        RenderPipeline.markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void OnPlayerLevelChange(PlayerLevelChangeEvent event) {
+        RenderPipeline.markDirty(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void OnPlayerGameModeChange(PlayerGameModeChangeEvent event) {
+        RenderPipeline.markDirty(event.getPlayer());
     }
 }
\ No newline at end of file
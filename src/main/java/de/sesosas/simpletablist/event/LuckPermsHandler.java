@@ -0,0 +1,60 @@
+package de.sesosas.simpletablist.event;
+
+import de.sesosas.simpletablist.cache.OnlineCounter;
+import de.sesosas.simpletablist.cache.PlayerDataCache;
+import de.sesosas.simpletablist.classes.ScoreboardClass;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * Reactions to LuckPerms changes. Called from the LuckPerms event bus, which fires on its own threads.
+ */
+public class LuckPermsHandler {
+
+    /**
+     * A node of a user was added or removed
+     * @param name The user's name, may be null
+     */
+    public static void onUserNodeChange(UUID userId, String name) {
+        EventTrace.record(EventTrace.Type.USER_NODE, userId, name, null);
+
+        // Invalidate cache for affected user
+        PlayerDataCache.invalidate(userId);
+
+        // Update scoreboard for online player
+        Player player = Bukkit.getPlayer(userId);
+        if (player != null && player.isOnline()) {
+            ScoreboardClass.Update();
+        }
+    }
+
+    /**
+     * A node of a group was added or removed, e.g. its inheritance changed
+     */
+    public static void onGroupNodeChange() {
+        EventTrace.record(EventTrace.Type.GROUP_NODE, null, null, null);
+
+        // Group counts of everyone may be affected
+        OnlineCounter.refreshAllGroups();
+    }
+
+    /**
+     * LuckPerms recalculated the cached data of a user
+     * @param name The user's name, may be null
+     */
+    public static void onUserDataRecalculate(UUID userId, String name) {
+        EventTrace.record(EventTrace.Type.USER_RECALCULATE, userId, name, null);
+
+        // Invalidate cache
+        PlayerDataCache.invalidate(userId);
+        OnlineCounter.refreshGroups(userId);
+
+        // Update scoreboard for online player
+        Player player = Bukkit.getPlayer(userId);
+        if (player != null && player.isOnline()) {
+            ScoreboardClass.Update();
+        }
+    }
+}
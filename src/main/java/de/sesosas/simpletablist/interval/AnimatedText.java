@@ -17,11 +17,16 @@ public class AnimatedText extends AInterval {
 
     @Override
     public void Init() {
-        long interval = CurrentConfig.getLong("Tab.Refresh.Interval.Time");
-        if (interval <= 0) {
-            interval = 1L;
+        long ticks = CurrentConfig.getLong("Tab.Refresh.Interval.Ticks");
+        if (ticks > 0) {
+            setIntervalTicks(ticks);
+        } else {
+            long interval = CurrentConfig.getLong("Tab.Refresh.Interval.Time");
+            if (interval <= 0) {
+                interval = 1L;
+            }
+            setIntervalTime(interval);
         }
-        setIntervalTime(interval);
 
         // Animations must run on the main thread for safety
         setUseMainThread(true);
@@ -43,8 +48,8 @@ public class AnimatedText extends AInterval {
                 // Advance all animations
                 AnimationManager.tick();
 
-                // Update scoreboard - this must be on the main thread
-                ScoreboardClass.Update();
+                // Refresh scoreboard - players whose inputs did not change are skipped
+                ScoreboardClass.Refresh();
             } catch (Exception e) {
                 Bukkit.getLogger().warning("[SimpleTabList] Error in animation tick: " + e.getMessage());
                 e.printStackTrace();
@@ -55,7 +60,7 @@ public class AnimatedText extends AInterval {
     @Override
     public void onStart() {
         Bukkit.getLogger().info("[SimpleTabList] Animation interval started with period: "
-                + getIntervalTime() + " seconds");
+                + getIntervalTicks() + " ticks (phase " + getPhase() + ")");
 
         // Validate animations on start
         if (AnimationManager.isInitialized()) {
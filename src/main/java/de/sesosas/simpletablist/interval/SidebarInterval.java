@@ -2,13 +2,9 @@ package de.sesosas.simpletablist.interval;
 
 import de.sesosas.simpletablist.api.classes.AInterval;
 import de.sesosas.simpletablist.animation.AnimationManager;
-import de.sesosas.simpletablist.classes.scoreboard.SidebarClass;
 import de.sesosas.simpletablist.config.SidebarConfig;
+import de.sesosas.simpletablist.render.RenderPipeline;
 import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
-
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Interval task for updating sidebars with AnimationManager support
@@ -23,11 +19,16 @@ public class SidebarInterval extends AInterval {
     @Override
     public void Init() {
         // Get the update interval from config, default to 2 seconds
-        int interval = SidebarConfig.getInt("Sidebar.Refresh.Interval");
-        if (interval <= 0) {
-            interval = 2;
+        int ticks = SidebarConfig.getInt("Sidebar.Refresh.Ticks");
+        if (ticks > 0) {
+            setIntervalTicks(ticks);
+        } else {
+            int interval = SidebarConfig.getInt("Sidebar.Refresh.Interval");
+            if (interval <= 0) {
+                interval = 2;
+            }
+            setIntervalTime(interval);
         }
-        setIntervalTime(interval);
 
         // Check if sidebar animations should sync with tablist animations
         syncWithTablistAnimation = SidebarConfig.getBoolean("Sidebar.Animations.SyncWithTablist");
@@ -59,14 +60,7 @@ public class SidebarInterval extends AInterval {
                     SidebarConfig.getBoolean("Sidebar.Animations.Enable")) {
 
                 // Update sidebar for all online players
-                List<Player> playerList = new ArrayList<>(Bukkit.getOnlinePlayers());
-                for (Player player : playerList) {
-                    try {
-                        SidebarClass.updateSidebar(player);
-                    } catch (Exception e) {
-                        Bukkit.getLogger().warning("[SimpleTabList] Error updating sidebar for " + player.getName() + ": " + e.getMessage());
-                    }
-                }
+                RenderPipeline.refreshAll(RenderPipeline.SIDEBAR);
             }
         } catch (Exception e) {
             Bukkit.getLogger().severe("[SimpleTabList] Critical error in sidebar interval: " + e.getMessage());
@@ -77,7 +71,7 @@ public class SidebarInterval extends AInterval {
     @Override
     public void onStart() {
         Bukkit.getLogger().info("[SimpleTabList] Sidebar update interval started with period: "
-                + getIntervalTime() + " seconds");
+                + getIntervalTicks() + " ticks (phase " + getPhase() + ")");
 
         if (syncWithTablistAnimation) {
             Bukkit.getLogger().info("[SimpleTabList] Sidebar animations will sync with tablist animations");
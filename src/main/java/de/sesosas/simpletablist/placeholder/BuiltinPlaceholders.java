@@ -0,0 +1,327 @@
+package de.sesosas.simpletablist.placeholder;
+
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
+import de.sesosas.simpletablist.cache.OnlineCounter;
+import de.sesosas.simpletablist.render.PlayerSnapshot;
+import de.sesosas.simpletablist.render.Template;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Registry of built-in [placeholders], rendered straight into the output from a PlayerSnapshot.
+ * Other plugins can register their own placeholders here instead of going through PlaceholderAPI.
+ * Formatters run on render threads and the main thread, and must only use the snapshot or their own thread-safe data.
+ * <p>
+ * Placeholders are not split into values pushed by events and values that change on their own. The render gate
+ * hashes every value read from the snapshot, which also catches changes no event reports (e.g. health regeneration).
+ */
+public class BuiltinPlaceholders {
+
+    /**
+     * Renders one placeholder
+     */
+    @FunctionalInterface
+    public interface Formatter {
+        /**
+         * @param snapshot The player the text is rendered for
+         * @param argument The part after ':' for [name:argument], otherwise null
+         * @param out Builder to append the value to
+         * @return false to leave the placeholder as it is
+         */
+        boolean append(PlayerSnapshot snapshot, String argument, StringBuilder out);
+    }
+
+    private static final Map<String, Formatter> entries = new ConcurrentHashMap<>();
+    private static final ThreadLocal<StringBuilder> scratch = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    // Same output as new DecimalFormat() with at most two fraction digits
+    private static final DecimalFormatSymbols SYMBOLS = DecimalFormatSymbols.getInstance();
+    private static final int GROUPING_SIZE;
+    private static final boolean GROUPING_USED;
+
+    static {
+        DecimalFormat format = new DecimalFormat();
+        GROUPING_SIZE = format.getGroupingSize();
+        GROUPING_USED = format.isGroupingUsed() && GROUPING_SIZE > 0;
+
+        add("player_name", text(PlayerSnapshot::getName));
+        add("player_world", text(PlayerSnapshot::getWorld));
+        add("player_health", decimal(PlayerSnapshot::getHealth));
+        add("player_food", integer(PlayerSnapshot::getFood));
+        add("player_xp", decimal(PlayerSnapshot::getExp));
+        add("player_lvl", integer(PlayerSnapshot::getLevel));
+        add("player_gamemode", text(snapshot -> snapshot.getGameMode().toString()));
+        add("player_group", text(snapshot -> snapshot.getMeta().getGroupName()));
+        add("player_prefix", text(snapshot -> snapshot.getMeta().getPrefix()));
+        add("player_suffix", text(snapshot -> snapshot.getMeta().getSuffix()));
+        add("world_prefix", text(PlayerSnapshot::getWorldPrefix));
+        add("world_suffix", text(PlayerSnapshot::getWorldSuffix));
+        add("global_prefix", text(PlayerSnapshot::getGlobalPrefix));
+        add("global_suffix", text(PlayerSnapshot::getGlobalSuffix));
+        add("online", (snapshot, argument, out) -> {
+            out.append(OnlineCounter.getOnline());
+            return true;
+        });
+        add("world_online", (snapshot, argument, out) -> {
+            if (argument == null) {
+                return false;
+            }
+            out.append(OnlineCounter.getWorldOnline(argument));
+            return true;
+        });
+        add("group_online", (snapshot, argument, out) -> {
+            if (argument == null) {
+                return false;
+            }
+            out.append(OnlineCounter.getGroupOnline(argument));
+            return true;
+        });
+        add("player_ping", integer(PlayerSnapshot::getPing));
+        add("player_x", integer(PlayerSnapshot::getBlockX));
+        add("player_y", integer(PlayerSnapshot::getBlockY));
+        add("player_z", integer(PlayerSnapshot::getBlockZ));
+    }
+
+    /**
+     * Register a placeholder usable as [name] or [name:argument].
+     * Its value is read on every refresh, texts are only rendered again when it changed.
+     */
+    public static void register(String name, Formatter formatter) {
+        add(name, formatter);
+    }
+
+    /**
+     * Register a text placeholder, a null value leaves the placeholder as it is
+     */
+    public static void registerText(String name, Function<PlayerSnapshot, String> value) {
+        add(name, text(value));
+    }
+
+    /**
+     * Register an integer placeholder
+     */
+    public static void registerInt(String name, ToIntFunction<PlayerSnapshot> value) {
+        add(name, integer(value));
+    }
+
+    /**
+     * Register a decimal placeholder, formatted with at most two fraction digits
+     */
+    public static void registerDouble(String name, ToDoubleFunction<PlayerSnapshot> value) {
+        add(name, decimal(value));
+    }
+
+    public static void unregister(String name) {
+        if (entries.remove(name.toLowerCase()) != null) {
+            Template.clearCache();
+        }
+    }
+
+    public static boolean isRegistered(String name) {
+        return entries.containsKey(name.toLowerCase());
+    }
+
+    private static void add(String name, Formatter formatter) {
+        entries.put(name.toLowerCase(), formatter);
+        // Compiled templates remember which placeholders they use
+        Template.clearCache();
+    }
+
+    private static Formatter text(Function<PlayerSnapshot, String> value) {
+        return (snapshot, argument, out) -> {
+            String text = value.apply(snapshot);
+            if (text == null) {
+                return false;
+            }
+            out.append(text);
+            return true;
+        };
+    }
+
+    private static Formatter integer(ToIntFunction<PlayerSnapshot> value) {
+        return (snapshot, argument, out) -> {
+            out.append(value.applyAsInt(snapshot));
+            return true;
+        };
+    }
+
+    private static Formatter decimal(ToDoubleFunction<PlayerSnapshot> value) {
+        return (snapshot, argument, out) -> {
+            appendDecimal(out, value.applyAsDouble(snapshot));
+            return true;
+        };
+    }
+
+    /**
+     * Replace all registered [placeholders] of a text in a single pass
+     */
+    public static String apply(String text, PlayerSnapshot snapshot) {
+        int start = text.indexOf('[');
+        if (start < 0) {
+            return text;
+        }
+
+        StringBuilder out = null;
+        int last = 0;
+        while (start >= 0) {
+            int end = findEnd(text, start);
+            if (end < 0) {
+                start = text.indexOf('[', start + 1);
+                continue;
+            }
+
+            int colon = text.indexOf(':', start);
+            boolean hasArgument = colon > start && colon < end;
+            String name = text.substring(start + 1, hasArgument ? colon : end);
+            Formatter formatter = entries.get(name);
+
+            if (formatter != null) {
+                if (out == null) {
+                    out = new StringBuilder(text.length() + 32);
+                }
+                out.append(text, last, start);
+                int mark = out.length();
+
+                String argument = hasArgument ? text.substring(colon + 1, end) : null;
+                if (!formatter.append(snapshot, argument, out)) {
+                    out.setLength(mark);
+                    out.append(text, start, end + 1);
+                }
+                last = end + 1;
+                start = text.indexOf('[', last);
+            } else {
+                start = text.indexOf('[', start + 1);
+            }
+        }
+
+        return out == null ? text : out.append(text, last, text.length()).toString();
+    }
+
+    /**
+     * Find all registered placeholders of a text
+     * @return The placeholders without brackets, e.g. "player_name" or "world_online:lobby"
+     */
+    public static String[] find(String text) {
+        List<String> found = new ArrayList<>();
+        int start = text.indexOf('[');
+        while (start >= 0) {
+            int end = findEnd(text, start);
+            if (end >= 0) {
+                int colon = text.indexOf(':', start);
+                String name = text.substring(start + 1, colon > start && colon < end ? colon : end);
+                if (entries.containsKey(name)) {
+                    found.add(text.substring(start + 1, end));
+                }
+            }
+            start = text.indexOf('[', start + 1);
+        }
+        return found.toArray(new String[0]);
+    }
+
+    /**
+     * Add the current value of a placeholder (as returned by find) to a fingerprint
+     */
+    public static long fingerprint(long hash, String placeholder, PlayerSnapshot snapshot) {
+        int colon = placeholder.indexOf(':');
+        Formatter formatter = entries.get(colon >= 0 ? placeholder.substring(0, colon) : placeholder);
+        if (formatter == null) {
+            return FingerprintUtil.appendValue(hash, null);
+        }
+
+        StringBuilder value = scratch.get();
+        value.setLength(0);
+        boolean handled = formatter.append(snapshot, colon >= 0 ? placeholder.substring(colon + 1) : null, value);
+        return FingerprintUtil.appendValue(hash, handled ? value : null);
+    }
+
+    /**
+     * Find the ']' closing a placeholder name made of [a-z0-9_], optionally followed by ':' and an argument
+     * @return Index of the ']', or -1 if this is no placeholder
+     */
+    private static int findEnd(String text, int start) {
+        int i = start + 1;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == ']') {
+                return i > start + 1 ? i : -1;
+            }
+            if (c == ':') {
+                int end = text.indexOf(']', i + 1);
+                return i > start + 1 ? end : -1;
+            }
+            if (!((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_')) {
+                return -1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * Append a number like DecimalFormat with at most two fraction digits (half-even), without allocating
+     */
+    static void appendDecimal(StringBuilder out, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e15) {
+            DecimalFormat format = new DecimalFormat();
+            format.setMaximumFractionDigits(2);
+            out.append(format.format(value));
+            return;
+        }
+
+        double scaled = Math.abs(value) * 100;
+        long hundredths = (long) Math.floor(scaled);
+        double remainder = scaled - hundredths;
+        if (Math.abs(remainder - 0.5) < 1e-6) {
+            // Too close to a tie for the multiplication above, decide on the exact value
+            hundredths = new BigDecimal(Math.abs(value)).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValue();
+        } else if (remainder > 0.5) {
+            hundredths++;
+        }
+
+        // DecimalFormat keeps the sign of values that round to zero
+        if (value < 0 || (value == 0 && 1 / value < 0)) {
+            out.append(SYMBOLS.getMinusSign());
+        }
+
+        appendInteger(out, hundredths / 100);
+
+        int fraction = (int) (hundredths % 100);
+        if (fraction != 0) {
+            char zero = SYMBOLS.getZeroDigit();
+            out.append(SYMBOLS.getDecimalSeparator());
+            out.append((char) (zero + fraction / 10));
+            if (fraction % 10 != 0) {
+                out.append((char) (zero + fraction % 10));
+            }
+        }
+    }
+
+    private static void appendInteger(StringBuilder out, long value) {
+        char zero = SYMBOLS.getZeroDigit();
+
+        long divisor = 1;
+        int digits = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+            digits++;
+        }
+
+        for (int remaining = digits - 1; divisor > 0; divisor /= 10, remaining--) {
+            out.append((char) (zero + (value / divisor) % 10));
+            if (GROUPING_USED && remaining > 0 && remaining % GROUPING_SIZE == 0) {
+                out.append(SYMBOLS.getGroupingSeparator());
+            }
+        }
+    }
+}
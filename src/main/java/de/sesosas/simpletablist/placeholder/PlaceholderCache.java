@@ -0,0 +1,221 @@
+package de.sesosas.simpletablist.placeholder;
+
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.config.CurrentConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Result cache for PlaceholderAPI placeholders with refresh policies declared in Placeholders.Cache.Policies.
+ * A policy applies to a single placeholder (server_max_players) or to a prefix (vault_*).
+ */
+public class PlaceholderCache {
+
+    private static final Object GLOBAL_KEY = new Object();
+    private static final Policy NO_POLICY = new Policy(Scope.PER_PLAYER, 0);
+
+    private static volatile boolean enabled = false;
+    private static volatile Map<String, Policy> exactPolicies = new HashMap<>();
+    private static volatile List<Map.Entry<String, Policy>> prefixPolicies = new ArrayList<>();
+    private static final Map<String, Policy> policyLookup = new ConcurrentHashMap<>();
+
+    // scope key (GLOBAL_KEY, player UUID or world name) -> placeholder -> value
+    private static final Map<Object, Map<String, CachedValue>> values = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Who shares a cached value
+     */
+    public enum Scope {
+        GLOBAL,
+        PER_PLAYER,
+        PER_WORLD;
+
+        public static Scope parse(String name) {
+            if (name == null) {
+                return PER_PLAYER;
+            }
+            switch (name.trim().toLowerCase()) {
+                case "global":
+                    return GLOBAL;
+                case "per-world":
+                case "world":
+                    return PER_WORLD;
+                default:
+                    return PER_PLAYER;
+            }
+        }
+    }
+
+    /**
+     * Declared refresh policy of a placeholder
+     */
+    public static final class Policy {
+        private final Scope scope;
+        private final long ttlMillis;
+
+        public Policy(Scope scope, long ttlMillis) {
+            this.scope = scope;
+            this.ttlMillis = ttlMillis;
+        }
+
+        public Scope getScope() { return scope; }
+
+        /**
+         * @return Time to live in milliseconds, 0 means until reload
+         */
+        public long getTtlMillis() { return ttlMillis; }
+    }
+
+    private static final class CachedValue {
+        private final String value;
+        private final long expiresAt;
+
+        private CachedValue(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt > 0 && now >= expiresAt;
+        }
+    }
+
+    /**
+     * Load policies from config
+     */
+    public static void loadConfig() {
+        enabled = CurrentConfig.getBoolean("Placeholders.Cache.Enable");
+
+        Map<String, Policy> exact = new HashMap<>();
+        List<Map.Entry<String, Policy>> prefixes = new ArrayList<>();
+
+        ConfigurationSection section = CurrentConfig.config().getConfigurationSection("Placeholders.Cache.Policies");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                Scope scope = Scope.parse(section.getString(key + ".Scope"));
+                long ttl = Math.max(0, section.getLong(key + ".TTL")) * 1000L;
+                Policy policy = new Policy(scope, ttl);
+
+                String name = key.toLowerCase();
+                if (name.endsWith("*")) {
+                    prefixes.add(new AbstractMap.SimpleImmutableEntry<>(name.substring(0, name.length() - 1), policy));
+                } else {
+                    exact.put(name, policy);
+                }
+            }
+        }
+
+        // Longest prefix wins
+        prefixes.sort((a, b) -> b.getKey().length() - a.getKey().length());
+
+        exactPolicies = exact;
+        prefixPolicies = prefixes;
+        policyLookup.clear();
+        values.clear();
+
+        if (enabled) {
+            Bukkit.getLogger().info("[SimpleTabList] Loaded " + (exact.size() + prefixes.size()) + " placeholder cache policies");
+        }
+    }
+
+    /**
+     * Get the policy for a placeholder (without the surrounding %)
+     * @return The policy, or null if the placeholder is not cached
+     */
+    public static Policy getPolicy(String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        Policy policy = policyLookup.get(token);
+        if (policy == null) {
+            policy = findPolicy(token.toLowerCase());
+            policyLookup.put(token, policy);
+        }
+
+        return policy == NO_POLICY ? null : policy;
+    }
+
+    private static Policy findPolicy(String token) {
+        Policy policy = exactPolicies.get(token);
+        if (policy != null) {
+            return policy;
+        }
+
+        for (Map.Entry<String, Policy> entry : prefixPolicies) {
+            if (token.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+
+        return NO_POLICY;
+    }
+
+    private static Object scopeKey(Policy policy, Player player) {
+        switch (policy.getScope()) {
+            case GLOBAL:
+                return GLOBAL_KEY;
+            case PER_WORLD:
+                return player.getWorld().getName();
+            default:
+                return player.getUniqueId();
+        }
+    }
+
+    /**
+     * Get a cached value
+     * @return The value, or null if missing or expired
+     */
+    public static String get(Policy policy, Player player, String token) {
+        Map<String, CachedValue> scoped = values.get(scopeKey(policy, player));
+        CachedValue cached = scoped != null ? scoped.get(token) : null;
+
+        if (cached == null || cached.isExpired(Schedulers.clock().currentTimeMillis())) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return cached.value;
+    }
+
+    /**
+     * Store a freshly resolved value
+     */
+    public static void put(Policy policy, Player player, String token, String value) {
+        long expiresAt = policy.getTtlMillis() > 0 ? Schedulers.clock().currentTimeMillis() + policy.getTtlMillis() : 0;
+        values.computeIfAbsent(scopeKey(policy, player), key -> new ConcurrentHashMap<>())
+                .put(token, new CachedValue(value, expiresAt));
+    }
+
+    /**
+     * Forget all per-player values of a player
+     */
+    public static void invalidate(UUID uuid) {
+        values.remove(uuid);
+    }
+
+    /**
+     * Forget all values
+     */
+    public static void clearAll() {
+        values.clear();
+    }
+
+    public static boolean isEnabled() { return enabled; }
+    public static long getHits() { return hits.get(); }
+    public static long getMisses() { return misses.get(); }
+}
@@ -0,0 +1,191 @@
+package de.sesosas.simpletablist.placeholder;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single entry point for PlaceholderAPI resolution.
+ * Each %placeholder% is served from the policy cache, the async worker or PlaceholderAPI itself.
+ */
+public class PlaceholderResolver {
+
+    private static final char BATCH_SEPARATOR = '\u0000';
+    private static final AtomicLong papiCalls = new AtomicLong();
+
+    /**
+     * Resolve all PlaceholderAPI placeholders in a text. Must be called on the main thread.
+     */
+    public static String apply(String text, Player player) {
+        if (text == null || text.indexOf('%') < 0) {
+            return text;
+        }
+
+        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") == null) {
+            return text;
+        }
+
+        StringBuilder result = null;
+        boolean unresolved = false;
+        int last = 0;
+        int start = text.indexOf('%');
+
+        while (start >= 0) {
+            int end = text.indexOf('%', start + 1);
+            if (end < 0) {
+                break;
+            }
+
+            String value = resolveToken(player, text.substring(start + 1, end));
+            if (value != null) {
+                if (result == null) {
+                    result = new StringBuilder(text.length());
+                }
+                result.append(text, last, start).append(value);
+                last = end + 1;
+            } else {
+                unresolved = true;
+            }
+
+            start = text.indexOf('%', end + 1);
+        }
+
+        String resolved = result == null ? text : result.append(text, last, text.length()).toString();
+
+        // Everything else goes through PlaceholderAPI in one call
+        if (unresolved) {
+            papiCalls.incrementAndGet();
+            return PlaceholderAPI.setPlaceholders(player, resolved);
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Resolve a set of distinct placeholders (without the surrounding %) for one player.
+     * Everything not served by the cache or the async worker is resolved with a single PlaceholderAPI call.
+     * Must be called on the main thread.
+     */
+    public static Map<String, String> resolveAll(Player player, Collection<String> tokens) {
+        Map<String, String> values = new HashMap<>(tokens.size() * 2);
+        if (tokens.isEmpty() || Bukkit.getPluginManager().getPlugin("PlaceholderAPI") == null) {
+            return values;
+        }
+
+        List<String> remaining = new ArrayList<>();
+        for (String token : tokens) {
+            String value = peek(player, token);
+            if (value != null) {
+                values.put(token, value);
+            } else {
+                remaining.add(token);
+            }
+        }
+
+        resolveMissing(player, remaining, values);
+        return values;
+    }
+
+    /**
+     * Resolve placeholders that peek could not serve with a single PlaceholderAPI call, storing the values of
+     * placeholders with a cache policy. Must be called on the main thread.
+     * @param values Map to put the values into
+     */
+    public static void resolveMissing(Player player, List<String> remaining, Map<String, String> values) {
+        if (remaining.isEmpty() || Bukkit.getPluginManager().getPlugin("PlaceholderAPI") == null) {
+            return;
+        }
+
+        // One pass over "%a%<sep>%b%<sep>..." instead of one call per component
+        StringBuilder batch = new StringBuilder(remaining.size() * 24);
+        for (int i = 0; i < remaining.size(); i++) {
+            if (i > 0) {
+                batch.append(BATCH_SEPARATOR);
+            }
+            batch.append('%').append(remaining.get(i)).append('%');
+        }
+
+        papiCalls.incrementAndGet();
+        String[] resolved = PlaceholderAPI.setPlaceholders(player, batch.toString()).split(String.valueOf(BATCH_SEPARATOR), -1);
+
+        if (resolved.length != remaining.size()) {
+            // A value contained the separator, fall back to one call per placeholder
+            resolved = new String[remaining.size()];
+            for (int i = 0; i < resolved.length; i++) {
+                papiCalls.incrementAndGet();
+                resolved[i] = PlaceholderAPI.setPlaceholders(player, "%" + remaining.get(i) + "%");
+            }
+        }
+
+        for (int i = 0; i < resolved.length; i++) {
+            String token = remaining.get(i);
+            values.put(token, resolved[i]);
+
+            PlaceholderCache.Policy policy = PlaceholderCache.getPolicy(token);
+            if (policy != null) {
+                PlaceholderCache.put(policy, player, token, resolved[i]);
+            }
+        }
+    }
+
+    /**
+     * Value of a placeholder if it can be served without calling PlaceholderAPI: from an unexpired cache entry
+     * or the async worker (which starts a refresh if none is pending). Must be called on the main thread.
+     * @return The value, or null if it has to go through PlaceholderAPI
+     */
+    public static String peek(Player player, String token) {
+        PlaceholderCache.Policy policy = PlaceholderCache.getPolicy(token);
+        if (policy != null) {
+            String cached = PlaceholderCache.get(policy, player, token);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        if (PlaceholderWorker.isAsyncSafe(token)) {
+            String value = PlaceholderWorker.resolve(player, token);
+            if (value == null) {
+                return PlaceholderWorker.getFallback();
+            }
+            if (policy != null) {
+                PlaceholderCache.put(policy, player, token, value);
+            }
+            return value;
+        }
+
+        return null;
+    }
+
+    /**
+     * Resolve a single placeholder through the cache or the async worker
+     * @return The value, or null if it has to go through the regular PlaceholderAPI pass
+     */
+    private static String resolveToken(Player player, String token) {
+        String value = peek(player, token);
+        if (value != null) {
+            return value;
+        }
+
+        PlaceholderCache.Policy policy = PlaceholderCache.getPolicy(token);
+        if (policy != null) {
+            papiCalls.incrementAndGet();
+            value = PlaceholderAPI.setPlaceholders(player, "%" + token + "%");
+            PlaceholderCache.put(policy, player, token, value);
+        }
+        return value;
+    }
+
+    /**
+     * Number of PlaceholderAPI.setPlaceholders calls made on the main thread
+     */
+    public static long getPapiCalls() {
+        return papiCalls.get();
+    }
+}
@@ -0,0 +1,205 @@
+package de.sesosas.simpletablist.placeholder;
+
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.config.CurrentConfig;
+import de.sesosas.simpletablist.render.RenderPipeline;
+import me.clip.placeholderapi.PlaceholderAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves PlaceholderAPI placeholders of whitelisted, async-safe expansions off the main thread.
+ * The last known value is served while a refresh is pending and the Fallback until the first value arrives,
+ * so slow expansions never stall the tick. A PlaceholderAPI call can not be interrupted, so a refresh is only
+ * started again once the previous call returned, and at most Placeholders.Async.MaxCalls calls of one expansion
+ * run at once. A hanging expansion therefore holds a bounded number of pool threads.
+ */
+public class PlaceholderWorker {
+
+    private static final Map<UUID, Map<String, Entry>> values = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = false;
+    private static volatile Set<String> asyncExpansions = Collections.emptySet();
+    private static volatile long timeoutMillis = 5000;
+    private static volatile int maxCalls = 4;
+    // Calls per expansion that are running or queued, replaced on reload while calls may still hold the old counters
+    private static volatile Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+    private static volatile String fallback = "";
+
+    private static final AtomicLong asyncCalls = new AtomicLong();
+    private static final AtomicLong staleServed = new AtomicLong();
+    private static final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Last known value of one placeholder for one player
+     */
+    private static final class Entry {
+        private volatile String value;
+        private volatile CompletableFuture<String> pending;
+        private volatile long startedMillis;
+        private volatile boolean timedOut;
+    }
+
+    /**
+     * Load whitelist and timeout from config
+     */
+    public static void loadConfig() {
+        enabled = CurrentConfig.getBoolean("Placeholders.Async.Enable");
+
+        long timeout = CurrentConfig.getLong("Placeholders.Async.RefreshTimeout");
+        timeoutMillis = timeout > 0 ? timeout : 5000;
+        maxCalls = Math.max(1, CurrentConfig.getInt("Placeholders.Async.MaxCalls"));
+
+        String fallbackValue = CurrentConfig.getString("Placeholders.Async.Fallback");
+        fallback = fallbackValue != null ? fallbackValue : "";
+
+        Set<String> expansions = new HashSet<>();
+        List<?> list = CurrentConfig.getList("Placeholders.Async.Expansions");
+        if (list != null) {
+            for (Object expansion : list) {
+                if (expansion != null) {
+                    expansions.add(expansion.toString().toLowerCase());
+                }
+            }
+        }
+        asyncExpansions = expansions;
+
+        values.clear();
+        running = new ConcurrentHashMap<>();
+
+        if (enabled && !expansions.isEmpty()) {
+            Bukkit.getLogger().info("[SimpleTabList] Async placeholder expansions: " + String.join(", ", expansions));
+        }
+    }
+
+    /**
+     * Check if a placeholder (without the surrounding %) belongs to an async-safe expansion
+     */
+    public static boolean isAsyncSafe(String token) {
+        if (!enabled) {
+            return false;
+        }
+
+        int separator = token.indexOf('_');
+        if (separator <= 0) {
+            return false;
+        }
+
+        return asyncExpansions.contains(expansion(token, separator));
+    }
+
+    private static String expansion(String token, int separator) {
+        return token.substring(0, separator).toLowerCase();
+    }
+
+    /**
+     * Get the value of an async-safe placeholder, starting a refresh if none is pending and the expansion has
+     * a call to spare. Never waits for the refresh, the player is re-rendered when the first value arrives.
+     * Must be called on the main thread.
+     * @return The last known value, or null if none arrived yet
+     */
+    public static String resolve(Player player, String token) {
+        Map<String, Entry> playerValues = values.computeIfAbsent(player.getUniqueId(), id -> new ConcurrentHashMap<>());
+        Entry entry = playerValues.computeIfAbsent(token, t -> new Entry());
+
+        if (entry.pending == null) {
+            refresh(player, token, entry);
+        } else if (!entry.timedOut && Schedulers.clock().currentTimeMillis() - entry.startedMillis > timeoutMillis) {
+            // The call keeps its thread until it returns, counted once and not started again before that
+            entry.timedOut = true;
+            timeouts.incrementAndGet();
+        }
+
+        String value = entry.value;
+        if (value != null && entry.pending != null) {
+            staleServed.incrementAndGet();
+        }
+        return value;
+    }
+
+    private static void refresh(Player player, String token, Entry entry) {
+        AtomicInteger calls = running.computeIfAbsent(expansion(token, token.indexOf('_')), e -> new AtomicInteger());
+        if (calls.incrementAndGet() > maxCalls) {
+            calls.decrementAndGet();
+            return;
+        }
+
+        String placeholder = "%" + token + "%";
+        asyncCalls.incrementAndGet();
+
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<String> future = ThreadUtil.supplyAsync(() -> {
+            ran.set(true);
+            try {
+                return PlaceholderAPI.setPlaceholders(player, placeholder);
+            } finally {
+                calls.decrementAndGet();
+            }
+        });
+
+        // Assign before attaching the callback, it may run immediately if the future is already done
+        entry.startedMillis = Schedulers.clock().currentTimeMillis();
+        entry.timedOut = false;
+        entry.pending = future;
+        future.whenComplete((result, error) -> {
+            boolean first = false;
+            if (!ran.get()) {
+                // Rejected by a full queue, retried on the next resolve
+                calls.decrementAndGet();
+            } else if (error != null) {
+                Bukkit.getLogger().warning("[SimpleTabList] Error resolving async placeholder " + placeholder + ": " + unwrap(error).getMessage());
+            } else if (result != null) {
+                first = entry.value == null;
+                entry.value = result;
+            }
+            if (entry.pending == future) {
+                entry.pending = null;
+            }
+
+            // The Fallback was shown so far
+            if (first && player.isOnline()) {
+                RenderPipeline.markDirty(player);
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Forget all values of a player
+     */
+    public static void invalidate(UUID uuid) {
+        values.remove(uuid);
+    }
+
+    /**
+     * Forget all values
+     */
+    public static void clearAll() {
+        values.clear();
+    }
+
+    /**
+     * Text shown while an async placeholder has no value yet
+     */
+    public static String getFallback() { return fallback; }
+
+    public static boolean isEnabled() { return enabled; }
+    public static long getAsyncCalls() { return asyncCalls.get(); }
+    public static long getStaleServed() { return staleServed.get(); }
+    public static long getTimeouts() { return timeouts.get(); }
+}
@@ -0,0 +1,104 @@
+package de.sesosas.simpletablist.render;
+
+import de.sesosas.simpletablist.api.utils.PingUtil;
+import de.sesosas.simpletablist.api.utils.WorldUtil;
+import de.sesosas.simpletablist.cache.PlayerDataCache;
+import de.sesosas.simpletablist.config.CurrentConfig;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.UUID;
+
+/**
+ * Immutable copy of everything a render needs from a player.
+ * Captured on the main thread, safe to read from any thread afterwards.
+ */
+public final class PlayerSnapshot {
+
+    private final UUID uniqueId;
+    private final String name;
+    private final String world;
+    private final double health;
+    private final int food;
+    private final float exp;
+    private final int level;
+    private final GameMode gameMode;
+    private final int ping;
+    private final int blockX;
+    private final int blockY;
+    private final int blockZ;
+    private final PlayerDataCache.CachedPlayerData meta;
+    private final String worldPrefix;
+    private final String worldSuffix;
+    private final String globalPrefix;
+    private final String globalSuffix;
+
+    private PlayerSnapshot(Player player) {
+        this.uniqueId = player.getUniqueId();
+        this.name = player.getName();
+        this.world = player.getWorld().getName();
+        this.health = player.getHealth();
+        this.food = player.getFoodLevel();
+        this.exp = player.getExp();
+        this.level = player.getLevel();
+        this.gameMode = player.getGameMode();
+        this.ping = PingUtil.getPing(player);
+
+        Location location = player.getLocation();
+        this.blockX = location.getBlockX();
+        this.blockY = location.getBlockY();
+        this.blockZ = location.getBlockZ();
+        this.meta = PlayerDataCache.getPlayerData(player);
+
+        // null means the section is disabled and its placeholders stay untouched
+        if (CurrentConfig.getBoolean("Worlds.Enable")) {
+            String prefix = (String) WorldUtil.GetWorldConfig(player.getWorld(), "Names.Prefix");
+            String suffix = (String) WorldUtil.GetWorldConfig(player.getWorld(), "Names.Suffix");
+            this.worldPrefix = prefix != null ? prefix : "";
+            this.worldSuffix = suffix != null ? suffix : "";
+        } else {
+            this.worldPrefix = null;
+            this.worldSuffix = null;
+        }
+
+        if (CurrentConfig.getBoolean("Names.Global.Enable")) {
+            String prefix = CurrentConfig.getString("Names.Global.Prefix");
+            String suffix = CurrentConfig.getString("Names.Global.Suffix");
+            this.globalPrefix = prefix != null ? prefix : "";
+            this.globalSuffix = suffix != null ? suffix : "";
+        } else {
+            this.globalPrefix = null;
+            this.globalSuffix = null;
+        }
+    }
+
+    /**
+     * Captures the current state of a player. Must be called on the main thread.
+     */
+    public static PlayerSnapshot capture(Player player) {
+        return new PlayerSnapshot(player);
+    }
+
+    public UUID getUniqueId() { return uniqueId; }
+    public String getName() { return name; }
+    public String getWorld() { return world; }
+    public double getHealth() { return health; }
+    public int getFood() { return food; }
+    public float getExp() { return exp; }
+    public int getLevel() { return level; }
+    public GameMode getGameMode() { return gameMode; }
+
+    /**
+     * @return Ping in milliseconds, or -1 if unknown
+     */
+    public int getPing() { return ping; }
+    public int getBlockX() { return blockX; }
+    public int getBlockY() { return blockY; }
+    public int getBlockZ() { return blockZ; }
+    public PlayerDataCache.CachedPlayerData getMeta() { return meta; }
+    public String getWorldPrefix() { return worldPrefix; }
+    public String getWorldSuffix() { return worldSuffix; }
+    public String getGlobalPrefix() { return globalPrefix; }
+    public String getGlobalSuffix() { return globalSuffix; }
+}
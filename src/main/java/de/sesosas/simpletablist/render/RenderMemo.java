@@ -0,0 +1,176 @@
+package de.sesosas.simpletablist.render;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendered texts shared between players, keyed by template and the fingerprint of the inputs it uses.
+ * Players with the same inputs (same world, group, placeholder values...) reuse one render.
+ * Bounded with LRU eviction, split into segments so render threads rarely wait on each other.
+ */
+public class RenderMemo {
+
+    private static final int SEGMENTS = 16;
+
+    private static volatile Segment[] segments = new Segment[0];
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    // Counters at the time of the last report
+    private static long reportedHits = 0;
+    private static long reportedMisses = 0;
+
+    private static final class Key {
+        private final long template;
+        private final long input;
+
+        private Key(long template, long input) {
+            this.template = template;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return template == key.template && input == key.input;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(template * 31 + input);
+        }
+    }
+
+    /**
+     * A memoized render
+     */
+    static final class Value {
+        final String text;
+        final int bytesSaved;
+
+        Value(String text, int bytesSaved) {
+            this.text = text;
+            this.bytesSaved = bytesSaved;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<Key, Value> {
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Value> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    /**
+     * Set the number of memoized renders, 0 disables the memo. Clears all entries.
+     */
+    public static void configure(int capacity) {
+        if (capacity <= 0) {
+            segments = new Segment[0];
+            return;
+        }
+
+        int perSegment = Math.max(1, capacity / SEGMENTS);
+        Segment[] created = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            created[i] = new Segment(perSegment);
+        }
+        segments = created;
+    }
+
+    public static boolean isEnabled() {
+        return segments.length > 0;
+    }
+
+    static Value get(long template, long input) {
+        Segment[] current = segments;
+        if (current.length == 0) {
+            return null;
+        }
+
+        Key key = new Key(template, input);
+        Segment segment = current[(key.hashCode() & 0x7fffffff) % current.length];
+        Value value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    static void put(long template, long input, Value value) {
+        Segment[] current = segments;
+        if (current.length == 0) {
+            return;
+        }
+
+        Key key = new Key(template, input);
+        Segment segment = current[(key.hashCode() & 0x7fffffff) % current.length];
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * Forget all memoized renders
+     */
+    public static void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public static int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public static long getHits() { return hits.get(); }
+    public static long getMisses() { return misses.get(); }
+
+    /**
+     * @return Hit rate in percent since startup
+     */
+    public static int getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total > 0 ? (int) (h * 100 / total) : 0;
+    }
+
+    /**
+     * Hit rate since the last call, for periodic reports
+     * @return Hit rate in percent, or -1 if there were no lookups
+     */
+    public static synchronized int getHitRateSinceLastReport() {
+        long h = hits.get();
+        long m = misses.get();
+        long deltaHits = h - reportedHits;
+        long total = deltaHits + (m - reportedMisses);
+        reportedHits = h;
+        reportedMisses = m;
+        return total > 0 ? (int) (deltaHits * 100 / total) : -1;
+    }
+}
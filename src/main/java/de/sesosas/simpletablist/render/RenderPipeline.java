@@ -0,0 +1,908 @@
+package de.sesosas.simpletablist.render;
+
+import de.sesosas.simpletablist.api.scheduler.Schedulers;
+import de.sesosas.simpletablist.api.utils.ColorMinifier;
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
+import de.sesosas.simpletablist.api.utils.StringUtil;
+import de.sesosas.simpletablist.api.utils.ThreadUtil;
+import de.sesosas.simpletablist.api.utils.TickWatchdog;
+import de.sesosas.simpletablist.api.utils.Timings;
+import de.sesosas.simpletablist.cache.ScoreboardStateCache;
+import de.sesosas.simpletablist.classes.scoreboard.DetailsClass;
+import de.sesosas.simpletablist.classes.scoreboard.NamesClass;
+import de.sesosas.simpletablist.classes.scoreboard.SidebarClass;
+import de.sesosas.simpletablist.config.CurrentConfig;
+import de.sesosas.simpletablist.config.SidebarConfig;
+import de.sesosas.simpletablist.placeholder.BuiltinPlaceholders;
+import de.sesosas.simpletablist.placeholder.PlaceholderResolver;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Three phase tab render pipeline:
+ * capture snapshots on the main thread, render them in parallel, apply changed results on the main thread
+ * (on Folia the global thread captures and each player's region thread applies, the plugin does not declare
+ * folia-supported yet because capture still reads player state off the player's region).
+ */
+public class RenderPipeline {
+
+    /** List names and team sorting */
+    public static final int NAMES = 1;
+    /** Header and footer */
+    public static final int TAB = 2;
+    /** Sidebar */
+    public static final int SIDEBAR = 4;
+    public static final int ALL = NAMES | TAB | SIDEBAR;
+
+    private static final int NAMES_INDEX = 0;
+    private static final int TAB_INDEX = 1;
+    private static final int SIDEBAR_INDEX = 2;
+
+    // Unchanged refreshes in a row after which a player counts as idle
+    private static final int IDLE_RUNS = 3;
+    // Refreshes between full checks of a paused idle sidebar
+    private static final int IDLE_CHECK_INTERVAL = 8;
+
+    private static ForkJoinPool pool;
+
+    // Bumped on shutdown, renders started before are not applied
+    private static volatile int generation = 0;
+
+    // Only touched on the main thread
+    private static boolean inFlight = false;
+    private static int pendingAll = 0;
+    private static final Map<UUID, Integer> pendingPlayers = new LinkedHashMap<>();
+
+    // Players whose built-in values changed during the current tick, queued on the next tick
+    private static final Set<UUID> dirtyPlayers = new LinkedHashSet<>();
+    private static boolean dirtyAll = false;
+
+    // Components waiting to be rendered by the TickDriver, forced renders first
+    private static final Map<UUID, Integer> forcedQueue = new LinkedHashMap<>();
+    private static final Map<UUID, Integer> refreshQueue = new LinkedHashMap<>();
+
+    // Average capture time per player in nanoseconds, used to fit queued renders into the tick budget
+    private static long captureNanos = 50_000L;
+
+    // Input fingerprints and back-off per player and component
+    private static final Map<UUID, ComponentState> inputKeys = new HashMap<>();
+
+    /**
+     * Everything captured for one player before rendering.
+     * Templates are null for components that are not part of this render.
+     */
+    private static final class Job {
+        private final PlayerSnapshot snapshot;
+        private final Map<String, String> values;
+        private final Template nameTemplate;
+        private final Template headerTemplate;
+        private final Template footerTemplate;
+        private final SidebarJob sidebar;
+        private final boolean minify;
+        private int bytesSaved = 0; // only touched by the rendering thread
+
+        private Job(PlayerSnapshot snapshot, Map<String, String> values, Template nameTemplate,
+                    Template headerTemplate, Template footerTemplate, SidebarJob sidebar, boolean minify) {
+            this.snapshot = snapshot;
+            this.minify = minify;
+            this.values = values;
+            this.nameTemplate = nameTemplate;
+            this.headerTemplate = headerTemplate;
+            this.footerTemplate = footerTemplate;
+            this.sidebar = sidebar;
+        }
+    }
+
+    /**
+     * Per component of one player: the input fingerprint of the last render, how many refreshes in a row found it
+     * unchanged and how many refreshes to leave out.
+     * Each refresh that finds a component unchanged doubles the number of refreshes it sits out, up to the
+     * configured maximum. A change or a forced render brings it back to every refresh.
+     */
+    private static final class ComponentState {
+        private final long[] keys = new long[3];
+        private final int[] runs = new int[3];
+        private final int[] skips = new int[3];
+        private boolean sidebarPaused = false;
+
+        /**
+         * Count down the refreshes a component sits out
+         * @return True if the component should be left out of this refresh
+         */
+        private boolean backingOff(int index, boolean forced) {
+            if (forced || skips[index] == 0) {
+                return false;
+            }
+            skips[index]--;
+            return true;
+        }
+    }
+
+    /**
+     * Sidebar templates and settings of one world
+     */
+    private static final class SidebarJob {
+        private final boolean visible;
+        private final Template title;
+        private final Template[] lines;
+        private final String blankLineChar;
+        private final boolean lineSpacing;
+        private final long settingsKey;
+        private final Template[] templates; // title and lines
+
+        private SidebarJob(boolean visible, Template title, Template[] lines, String blankLineChar, boolean lineSpacing) {
+            this.visible = visible;
+            this.title = title;
+            this.lines = lines;
+            if (visible) {
+                this.templates = new Template[lines.length + 1];
+                this.templates[0] = title;
+                System.arraycopy(lines, 0, this.templates, 1, lines.length);
+            } else {
+                this.templates = new Template[0];
+            }
+            this.blankLineChar = blankLineChar;
+            this.lineSpacing = lineSpacing;
+
+            long key = FingerprintUtil.append(FingerprintUtil.EMPTY, blankLineChar);
+            key = FingerprintUtil.append(key, lineSpacing ? 't' : 'f');
+            this.settingsKey = FingerprintUtil.append(key, visible ? 'v' : 'h');
+        }
+    }
+
+    private static final SidebarJob HIDDEN_SIDEBAR = new SidebarJob(false, null, null, null, false);
+
+    /**
+     * Create the render pool
+     */
+    public static void initialize() {
+        int parallelism = CurrentConfig.getInt("Performance.Render.Parallelism");
+        if (parallelism <= 0) {
+            parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        }
+
+        AtomicInteger count = new AtomicInteger(0);
+        ForkJoinPool.ForkJoinWorkerThreadFactory factory = forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("STL-Render-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        RenderMemo.configure(CurrentConfig.getInt("Performance.Render.MemoSize"));
+
+        pool = new ForkJoinPool(parallelism, factory, (thread, e) ->
+                Bukkit.getLogger().warning("[SimpleTabList] Error in render thread: " + e.getMessage()), false);
+        Bukkit.getLogger().info("[SimpleTabList] Render pipeline started with parallelism " + parallelism);
+    }
+
+    /**
+     * Stop the render pool
+     */
+    public static void shutdown() {
+        generation++;
+        if (pool != null) {
+            pool.shutdown();
+            try {
+                if (!pool.awaitTermination(2, TimeUnit.SECONDS)) {
+                    pool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+            }
+            pool = null;
+        }
+        inFlight = false;
+        pendingAll = 0;
+        pendingPlayers.clear();
+        dirtyPlayers.clear();
+        dirtyAll = false;
+        forcedQueue.clear();
+        refreshQueue.clear();
+        inputKeys.clear();
+    }
+
+    /**
+     * Render and apply components for the given players.
+     * If a render is already running the request is merged into the next one.
+     * @param players Players to update
+     * @param components Bit mask of NAMES, TAB and SIDEBAR
+     */
+    public static void update(Collection<? extends Player> players, int components) {
+        if (!Schedulers.get().isGlobalThread()) {
+            List<Player> copy = new ArrayList<>(players);
+            ThreadUtil.runOnMainThread(() -> update(copy, components));
+            return;
+        }
+
+        if (inFlight) {
+            for (Player player : players) {
+                pendingPlayers.merge(player.getUniqueId(), components, (a, b) -> a | b);
+            }
+            return;
+        }
+
+        run(players, components, true);
+    }
+
+    /**
+     * Render and apply components for every online player
+     * @param components Bit mask of NAMES, TAB and SIDEBAR
+     */
+    public static void updateAll(int components) {
+        if (!Schedulers.get().isGlobalThread()) {
+            ThreadUtil.runOnMainThreadKeyed("render:updateAll:" + components, () -> updateAll(components));
+            return;
+        }
+
+        if (inFlight) {
+            pendingAll |= components;
+            return;
+        }
+
+        run(Bukkit.getOnlinePlayers(), components, true);
+    }
+
+    /**
+     * Periodic refresh of every online player, queued and rendered by the TickDriver within the tick budget.
+     * Components whose inputs (template source, placeholder values and built-in values) are unchanged since
+     * their last render are skipped.
+     * @param components Bit mask of NAMES, TAB and SIDEBAR
+     */
+    public static void refreshAll(int components) {
+        if (!Schedulers.get().isGlobalThread()) {
+            ThreadUtil.runOnMainThreadKeyed("render:refreshAll:" + components, () -> refreshAll(components));
+            return;
+        }
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            refreshQueue.merge(player.getUniqueId(), components, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * Re-render a player on the next tick because one of its built-in values changed.
+     * Several changes within the same tick are merged into one render.
+     */
+    public static void markDirty(Player player) {
+        if (!Schedulers.get().isGlobalThread()) {
+            ThreadUtil.runOnMainThreadKeyed("render:markDirty:" + player.getUniqueId(), () -> markDirty(player));
+            return;
+        }
+
+        dirtyPlayers.add(player.getUniqueId());
+    }
+
+    /**
+     * Re-check every player on the next tick because a shared value (like an online count) changed.
+     * Unlike markDirty this is a regular refresh: only players whose inputs changed are rendered again,
+     * so a burst of joins does not re-resolve every placeholder of every player.
+     */
+    public static void markAllDirty() {
+        if (!Schedulers.get().isGlobalThread()) {
+            ThreadUtil.runOnMainThreadKeyed("render:markAllDirty", RenderPipeline::markAllDirty);
+            return;
+        }
+
+        dirtyAll = true;
+    }
+
+    /**
+     * Queue the players marked dirty during the last tick. Called by the TickDriver at the start of a tick,
+     * events fire before the new value is set so it is only read one tick later.
+     */
+    public static void beginTick() {
+        if (!dirtyAll && dirtyPlayers.isEmpty()) {
+            return;
+        }
+
+        int components = SidebarConfig.getBoolean("Sidebar.Enable") ? ALL : NAMES | TAB;
+        if (dirtyAll) {
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                refreshQueue.merge(player.getUniqueId(), components, (a, b) -> a | b);
+
+                // Changed inputs must not wait for a backed off component
+                ComponentState state = inputKeys.get(player.getUniqueId());
+                if (state != null) {
+                    Arrays.fill(state.skips, 0);
+                }
+            }
+        }
+        for (UUID uuid : dirtyPlayers) {
+            forcedQueue.merge(uuid, components, (a, b) -> a | b);
+        }
+        dirtyAll = false;
+        dirtyPlayers.clear();
+    }
+
+    /**
+     * Render queued players until the deadline, using the measured capture time per player.
+     * At least one player is rendered per call so the queue always makes progress. Called by the TickDriver.
+     * @param deadline Schedulers.clock().nanoTime() value at which the tick budget is used up
+     */
+    public static void drain(long deadline) {
+        if (inFlight || (forcedQueue.isEmpty() && refreshQueue.isEmpty())) {
+            return;
+        }
+
+        long remaining = deadline - Schedulers.clock().nanoTime();
+        int limit = (int) Math.max(1L, Math.min(Integer.MAX_VALUE, remaining / Math.max(1L, captureNanos)));
+
+        Map<Integer, List<Player>> forced = new HashMap<>();
+        limit -= take(forcedQueue, limit, forced);
+        Map<Integer, List<Player>> refresh = new HashMap<>();
+        take(refreshQueue, limit, refresh);
+
+        List<Job> jobs = new ArrayList<>();
+        for (Map.Entry<Integer, List<Player>> entry : forced.entrySet()) {
+            jobs.addAll(capture(entry.getValue(), entry.getKey(), true));
+        }
+        for (Map.Entry<Integer, List<Player>> entry : refresh.entrySet()) {
+            jobs.addAll(capture(entry.getValue(), entry.getKey(), false));
+        }
+        start(jobs);
+    }
+
+    /**
+     * Move up to limit online players out of a queue, grouped by component mask
+     * @return Number of players taken
+     */
+    private static int take(Map<UUID, Integer> queue, int limit, Map<Integer, List<Player>> groups) {
+        int taken = 0;
+        Iterator<Map.Entry<UUID, Integer>> iterator = queue.entrySet().iterator();
+        while (taken < limit && iterator.hasNext()) {
+            Map.Entry<UUID, Integer> entry = iterator.next();
+            iterator.remove();
+
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null) {
+                continue;
+            }
+
+            int components = entry.getValue();
+            groups.computeIfAbsent(components, c -> new ArrayList<>()).add(player);
+            taken++;
+
+            // A forced render also covers a queued refresh of the same components
+            if (queue == forcedQueue) {
+                refreshQueue.computeIfPresent(entry.getKey(), (uuid, queued) -> {
+                    int left = queued & ~components;
+                    return left != 0 ? left : null;
+                });
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * @return Number of players waiting in the render queues
+     */
+    public static int getQueueSize() {
+        return forcedQueue.size() + refreshQueue.size();
+    }
+
+    /**
+     * Forget the render state of a player. The state belongs to the global thread, other threads hand the call to it.
+     */
+    public static void forget(UUID uuid) {
+        if (!Schedulers.get().isGlobalThread()) {
+            ThreadUtil.runOnMainThreadKeyed("render:forget:" + uuid, () -> forget(uuid));
+            return;
+        }
+
+        inputKeys.remove(uuid);
+        dirtyPlayers.remove(uuid);
+        forcedQueue.remove(uuid);
+        refreshQueue.remove(uuid);
+    }
+
+    /**
+     * Forget the render state of all players, the next refresh renders everything again
+     */
+    public static void clearState() {
+        inputKeys.clear();
+        RenderMemo.configure(CurrentConfig.getInt("Performance.Render.MemoSize"));
+    }
+
+    private static void run(Collection<? extends Player> players, int components, boolean forced) {
+        // Forced renders from events run outside the TickDriver and count towards the plugin's time as well
+        long started = TickWatchdog.begin();
+        try {
+            start(capture(players, components, forced));
+        } finally {
+            TickWatchdog.end(started);
+        }
+    }
+
+    private static void start(List<Job> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        if (pool == null || pool.isShutdown() || !CurrentConfig.getBoolean("Performance.AsyncThreads")) {
+            apply(renderAll(jobs, false));
+            return;
+        }
+
+        inFlight = true;
+        int started = generation;
+        CompletableFuture.supplyAsync(() -> renderAll(jobs, true), pool)
+                .whenComplete((results, error) -> {
+                    // Renders still running when the plugin was disabled are dropped
+                    if (started == generation) {
+                        ThreadUtil.runOnMainThread(() -> {
+                            if (started == generation) {
+                                finish(results, error);
+                            }
+                        });
+                    }
+                });
+    }
+
+    /**
+     * Phase 1 - main thread: take snapshots and resolve everything that needs the Bukkit API.
+     * Components whose placeholders are all cached are gated before PlaceholderAPI is called, the placeholders
+     * of the other components are resolved in one pass.
+     */
+    private static List<Job> capture(Collection<? extends Player> players, int components, boolean forced) {
+        long started = Schedulers.clock().nanoTime();
+        List<Job> jobs = captureJobs(players, components, forced);
+        if (!players.isEmpty()) {
+            long perPlayer = (Schedulers.clock().nanoTime() - started) / players.size();
+            captureNanos = (captureNanos * 7 + perPlayer) / 8;
+        }
+        return jobs;
+    }
+
+    private static List<Job> captureJobs(Collection<? extends Player> players, int components, boolean forced) {
+        boolean namesEnabled = (components & NAMES) != 0 && CurrentConfig.getBoolean("Names.Enable");
+        boolean tab = (components & TAB) != 0;
+        boolean sidebar = (components & SIDEBAR) != 0 && SidebarConfig.getBoolean("Sidebar.Enable");
+        boolean minify = CurrentConfig.getBoolean("Performance.Minify.Enable");
+        Template nameTemplate = namesEnabled ? Template.compile(CurrentConfig.getString("Names.Format.Default")) : null;
+        int maxLevel = backoffLevel();
+        boolean pauseIdleSidebars = TickWatchdog.getLevel() == TickWatchdog.Level.MINIMAL;
+
+        // Header, footer and sidebar templates only depend on the world, so compile them once per world
+        Map<String, Template[]> tabTemplates = new HashMap<>();
+        Map<String, SidebarJob> sidebarTemplates = new HashMap<>();
+        List<Job> jobs = new ArrayList<>(players.size());
+
+        for (Player player : players) {
+            if (!player.isOnline()) {
+                continue;
+            }
+
+            try {
+                String worldName = player.getWorld().getName();
+
+                ComponentState state = inputKeys.computeIfAbsent(player.getUniqueId(), id -> new ComponentState());
+
+                Template name = nameTemplate;
+                if (name != null && state.backingOff(NAMES_INDEX, forced)) {
+                    name = null;
+                }
+
+                Template[] templates = null;
+                if (tab && !state.backingOff(TAB_INDEX, forced)) {
+                    templates = tabTemplates.get(worldName);
+                    if (templates == null) {
+                        templates = new Template[]{
+                                Template.compile(DetailsClass.getTemplate(player, true)),
+                                Template.compile(DetailsClass.getTemplate(player, false))
+                        };
+                        tabTemplates.put(worldName, templates);
+                    }
+                }
+
+                SidebarJob sidebarJob = null;
+                if (sidebar && !state.backingOff(SIDEBAR_INDEX, forced)) {
+                    if (SidebarClass.shouldHaveSidebar(player)) {
+                        sidebarJob = sidebarTemplates.computeIfAbsent(worldName, RenderPipeline::captureSidebar);
+                    } else {
+                        sidebarJob = HIDDEN_SIDEBAR;
+                    }
+                }
+
+                if (name == null && templates == null && sidebarJob == null) {
+                    continue;
+                }
+
+                PlayerSnapshot snapshot = PlayerSnapshot.capture(player);
+                long base = FingerprintUtil.append(FingerprintUtil.EMPTY, minify ? 'm' : '-');
+
+                // Gate components whose placeholders are all served by the cache or the async worker
+                // before calling PlaceholderAPI, the others are gated once their values are resolved
+                Map<String, String> values = new HashMap<>();
+                Set<String> missing = new LinkedHashSet<>();
+                boolean nameKnown = name != null && peekAll(player, values, missing, name);
+                boolean tabKnown = templates != null && peekAll(player, values, missing, templates);
+                Set<String> sidebarMissing = new LinkedHashSet<>();
+                boolean sidebarKnown = sidebarJob != null && peekAll(player, values, sidebarMissing, sidebarJob.templates);
+
+                if (nameKnown && skip(state, NAMES_INDEX, inputKey(base, values, snapshot, name), forced, maxLevel)) {
+                    name = null;
+                }
+                if (tabKnown && skip(state, TAB_INDEX, inputKey(base, values, snapshot, templates), forced, maxLevel)) {
+                    templates = null;
+                }
+                if (sidebarKnown && skip(state, SIDEBAR_INDEX, sidebarKey(base, values, snapshot, sidebarJob), forced, maxLevel)) {
+                    sidebarJob = null;
+                }
+
+                // Under heavy load, a sidebar that did not change for a while and needs PlaceholderAPI to tell
+                // is only checked every few refreshes. Changes the gate can see above are never held back.
+                if (sidebarJob != null && !sidebarKnown) {
+                    if (pauseIdleSidebars && !forced && !state.sidebarPaused && state.runs[SIDEBAR_INDEX] >= IDLE_RUNS) {
+                        state.sidebarPaused = true;
+                        state.skips[SIDEBAR_INDEX] = Math.max(state.skips[SIDEBAR_INDEX], IDLE_CHECK_INTERVAL - 1);
+                        sidebarJob = null;
+                    } else {
+                        state.sidebarPaused = false;
+                        missing.addAll(sidebarMissing);
+                    }
+                }
+
+                if (!missing.isEmpty()) {
+                    long resolveStarted = Timings.start();
+                    PlaceholderResolver.resolveMissing(player, new ArrayList<>(missing), values);
+                    Timings.stop(Timings.Stage.PLACEHOLDERS, resolveStarted, player.getUniqueId());
+                }
+
+                // Leave out the remaining components whose inputs did not change since their last render
+                if (name != null && !nameKnown && skip(state, NAMES_INDEX, inputKey(base, values, snapshot, name), forced, maxLevel)) {
+                    name = null;
+                }
+                if (templates != null && !tabKnown && skip(state, TAB_INDEX, inputKey(base, values, snapshot, templates), forced, maxLevel)) {
+                    templates = null;
+                }
+                if (sidebarJob != null && !sidebarKnown && skip(state, SIDEBAR_INDEX, sidebarKey(base, values, snapshot, sidebarJob), forced, maxLevel)) {
+                    sidebarJob = null;
+                }
+
+                if (name == null && templates == null && sidebarJob == null) {
+                    continue;
+                }
+
+                jobs.add(new Job(
+                        snapshot,
+                        values,
+                        name,
+                        templates != null ? templates[0] : null,
+                        templates != null ? templates[1] : null,
+                        sidebarJob,
+                        minify
+                ));
+            } catch (Exception e) {
+                Bukkit.getLogger().warning("[SimpleTabList] Error capturing player " + player.getName() + ": " + e.getMessage());
+            }
+        }
+
+        return jobs;
+    }
+
+    private static SidebarJob captureSidebar(String worldName) {
+        List<String> lines = SidebarClass.getLineTemplates(worldName);
+        Template[] compiled = new Template[lines.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            compiled[i] = Template.compile(lines.get(i));
+        }
+
+        return new SidebarJob(true,
+                Template.compile(SidebarClass.getTitleTemplate(worldName)),
+                compiled,
+                SidebarClass.getBlankLineChar(),
+                SidebarClass.isLineSpacing());
+    }
+
+    /**
+     * Check if a component can be left out because its output cannot have changed, remember its key
+     * and back off further if it is unchanged
+     */
+    private static boolean skip(ComponentState state, int index, long key, boolean forced, int maxLevel) {
+        boolean unchanged = !forced && key != FingerprintUtil.NONE && state.keys[index] == key;
+        state.keys[index] = key;
+
+        state.runs[index] = unchanged ? Math.min(state.runs[index] + 1, 1 << 16) : 0;
+        state.skips[index] = (1 << Math.min(state.runs[index], maxLevel)) - 1;
+        return unchanged;
+    }
+
+    /**
+     * @return Highest back-off level, a component sits out at most 2^level - 1 refreshes in a row
+     */
+    private static int backoffLevel() {
+        if (!CurrentConfig.getBoolean("Performance.Backoff.Enable")) {
+            return 0;
+        }
+        int factor = Math.max(1, CurrentConfig.getInt("Performance.Backoff.MaxFactor"));
+        return Math.min(30, 31 - Integer.numberOfLeadingZeros(factor));
+    }
+
+    /**
+     * Continue a component key with the sources and inputs of its templates
+     * @return The key, or NONE if any template cannot be fingerprinted
+     */
+    private static long inputKey(long key, Map<String, String> values, PlayerSnapshot snapshot, Template... templates) {
+        for (Template template : templates) {
+            if (key == FingerprintUtil.NONE) {
+                return key;
+            }
+            key = FingerprintUtil.append(key, template.getId());
+            key = inputFingerprint(key, template, values, snapshot);
+        }
+        return key;
+    }
+
+    private static long sidebarKey(long base, Map<String, String> values, PlayerSnapshot snapshot, SidebarJob sidebarJob) {
+        long key = FingerprintUtil.append(base, sidebarJob.settingsKey);
+        if (sidebarJob.visible) {
+            key = inputKey(key, values, snapshot, sidebarJob.title);
+            key = inputKey(key, values, snapshot, sidebarJob.lines);
+        }
+        return key;
+    }
+
+    /**
+     * Look up the placeholders of templates that can be served without calling PlaceholderAPI
+     * @param values Known values, filled with the ones found
+     * @param missing Placeholders that need PlaceholderAPI, filled with the ones found
+     * @return True if all placeholders of the templates are known
+     */
+    private static boolean peekAll(Player player, Map<String, String> values, Set<String> missing, Template... templates) {
+        boolean known = true;
+        for (Template template : templates) {
+            if (template == null) {
+                continue;
+            }
+            for (String token : template.getTokens()) {
+                if (values.containsKey(token)) {
+                    continue;
+                }
+                if (!missing.contains(token)) {
+                    String value = PlaceholderResolver.peek(player, token);
+                    if (value != null) {
+                        values.put(token, value);
+                        continue;
+                    }
+                    missing.add(token);
+                }
+                known = false;
+            }
+        }
+        return known;
+    }
+
+    /**
+     * Phase 2 - any thread: render templates using only snapshot data
+     */
+    private static List<RenderResult> renderAll(List<Job> jobs, boolean parallel) {
+        Stream<Job> stream = parallel ? jobs.parallelStream() : jobs.stream();
+        return stream.map(RenderPipeline::render)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static RenderResult render(Job job) {
+        try {
+            PlayerSnapshot snapshot = job.snapshot;
+            RenderResult result = new RenderResult(
+                    snapshot.getUniqueId(),
+                    render(job.nameTemplate, job),
+                    render(job.headerTemplate, job),
+                    render(job.footerTemplate, job)
+            );
+
+            SidebarJob sidebar = job.sidebar;
+            if (sidebar != null) {
+                long started = Timings.start();
+                if (sidebar.visible) {
+                    String[] lines = new String[sidebar.lines.length];
+                    int score = lines.length;
+                    for (int i = 0; i < lines.length; i++) {
+                        String line = render(sidebar.lines[i], job);
+                        lines[i] = line != null ? SidebarClass.formatLine(line, score, sidebar.blankLineChar, sidebar.lineSpacing) : null;
+                        score--;
+                    }
+                    String title = render(sidebar.title, job);
+                    result.setSidebar(true, title != null ? title : "", lines);
+                } else {
+                    result.setSidebar(false, null, null);
+                }
+                Timings.stop(Timings.Stage.SIDEBAR, started);
+            }
+
+            result.setBytesSaved(job.bytesSaved);
+            return result;
+        } catch (Exception e) {
+            Bukkit.getLogger().warning("[SimpleTabList] Error rendering player " + job.snapshot.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String render(Template template, Job job) {
+        if (template == null) {
+            return null;
+        }
+
+        long input = FingerprintUtil.NONE;
+        if (RenderMemo.isEnabled()) {
+            input = inputFingerprint(FingerprintUtil.append(FingerprintUtil.EMPTY, job.minify ? 'm' : '-'),
+                    template, job.values, job.snapshot);
+        }
+        if (input != FingerprintUtil.NONE) {
+            RenderMemo.Value memoized = RenderMemo.get(template.getId(), input);
+            if (memoized != null) {
+                job.bytesSaved += memoized.bytesSaved;
+                return memoized.text;
+            }
+        }
+
+        long started = Timings.start();
+        String rendered = StringUtil.render(template.substitute(job.values, job.snapshot), job.snapshot);
+        int saved = 0;
+        if (job.minify) {
+            String minified = ColorMinifier.minify(rendered);
+            saved = ColorMinifier.bytesSaved(rendered, minified);
+            rendered = minified;
+        }
+
+        Timings.stop(Timings.Stage.TEMPLATE, started, job.snapshot.getUniqueId());
+
+        if (input != FingerprintUtil.NONE) {
+            RenderMemo.put(template.getId(), input, new RenderMemo.Value(rendered, saved));
+        }
+        job.bytesSaved += saved;
+        return rendered;
+    }
+
+    /**
+     * Continue a fingerprint with everything a template's output depends on for one player
+     * @return The fingerprint, or NONE if the output cannot be fingerprinted
+     */
+    private static long inputFingerprint(long input, Template template, Map<String, String> values, PlayerSnapshot snapshot) {
+        for (String token : template.getTokens()) {
+            String value = values.get(token);
+            // Values may contain built-in placeholders that are not part of the key
+            if (value != null && value.indexOf('[') >= 0) {
+                return FingerprintUtil.NONE;
+            }
+            input = FingerprintUtil.appendValue(input, value);
+        }
+
+        for (String builtin : template.getBuiltins()) {
+            input = BuiltinPlaceholders.fingerprint(input, builtin, snapshot);
+        }
+
+        return input == FingerprintUtil.NONE ? FingerprintUtil.EMPTY : input;
+    }
+
+    /**
+     * Phase 3 - main thread, or the player's region thread on Folia: push only what changed
+     */
+    private static void apply(List<RenderResult> results) {
+        // Folia has no main scoreboard to sort into
+        boolean sorting = CurrentConfig.getBoolean("Names.Sorting.Enable") && !Schedulers.isFolia();
+        long bytesSaved = 0;
+
+        for (RenderResult result : results) {
+            Player player = Bukkit.getPlayer(result.getUniqueId());
+            if (player == null || !player.isOnline()) {
+                continue;
+            }
+
+            bytesSaved += result.getBytesSaved();
+
+            // Inline on the main thread, on Folia on the region thread that owns the player
+            Schedulers.get().runForPlayer(player, () -> apply(player, result, sorting));
+        }
+
+        if (CurrentConfig.getBoolean("Performance.Minify.Enable")) {
+            ColorMinifier.record(bytesSaved, results.size(), CurrentConfig.getBoolean("Performance.Minify.Report"));
+        }
+    }
+
+    private static void apply(Player player, RenderResult result, boolean sorting) {
+        long started = Timings.start();
+        try {
+            if (result.getDisplayName() != null) {
+                if (ScoreboardStateCache.claimDisplayName(result.getUniqueId(), result.getDisplayNameFingerprint())) {
+                    player.setPlayerListName(result.getDisplayName());
+                }
+
+                // Team assignment has its own change detection
+                if (sorting) {
+                    NamesClass.sortPlayer(player);
+                }
+            }
+
+            if (result.getHeader() != null) {
+                DetailsClass.applyHeader(player, result.getHeader(), result.getHeaderFingerprint());
+                DetailsClass.applyFooter(player, result.getFooter(), result.getFooterFingerprint());
+            }
+
+            if (result.isSidebarRendered()) {
+                if (result.isSidebarVisible()) {
+                    SidebarClass.applySidebar(player, result.getSidebarTitle(), result.getSidebarTitleFingerprint(),
+                            result.getSidebarLines(), result.getSidebarLineFingerprints());
+                } else {
+                    SidebarClass.removeSidebar(player);
+                }
+            }
+        } catch (Exception e) {
+            Bukkit.getLogger().warning("[SimpleTabList] Error updating player " + player.getName() + ": " + e.getMessage());
+        }
+        Timings.stop(Timings.Stage.APPLY, started, result.getUniqueId());
+    }
+
+    private static void finish(List<RenderResult> results, Throwable error) {
+        long started = TickWatchdog.begin();
+        try {
+            finishRender(results, error);
+        } finally {
+            TickWatchdog.end(started);
+        }
+    }
+
+    private static void finishRender(List<RenderResult> results, Throwable error) {
+        inFlight = false;
+
+        if (error != null) {
+            Bukkit.getLogger().warning("[SimpleTabList] Error rendering scoreboards: " + error.getMessage());
+        } else if (results != null) {
+            apply(results);
+        }
+
+        // Run whatever was requested while we were rendering
+        if (pendingAll != 0 || !pendingPlayers.isEmpty()) {
+            int all = pendingAll;
+            Map<UUID, Integer> players = new LinkedHashMap<>(pendingPlayers);
+            pendingAll = 0;
+            pendingPlayers.clear();
+
+            if (all != 0) {
+                run(Bukkit.getOnlinePlayers(), all, true);
+            }
+
+            // Group the remaining requests by component mask
+            Map<Integer, List<Player>> byComponents = new HashMap<>();
+            for (Map.Entry<UUID, Integer> entry : players.entrySet()) {
+                int components = entry.getValue() & ~all;
+                Player player = Bukkit.getPlayer(entry.getKey());
+                if (components != 0 && player != null) {
+                    byComponents.computeIfAbsent(components, c -> new ArrayList<>()).add(player);
+                }
+            }
+            for (Map.Entry<Integer, List<Player>> entry : byComponents.entrySet()) {
+                update(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Check if a render is currently running off the main thread
+     */
+    public static boolean isInFlight() {
+        return inFlight;
+    }
+}
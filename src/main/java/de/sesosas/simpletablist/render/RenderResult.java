@@ -0,0 +1,91 @@
+package de.sesosas.simpletablist.render;
+
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
+
+import java.util.UUID;
+
+/**
+ * Rendered tab components of one player together with their fingerprints
+ */
+public final class RenderResult {
+
+    private final UUID uniqueId;
+    private final String displayName;
+    private final long displayNameFingerprint;
+    private final String header;
+    private final long headerFingerprint;
+    private final String footer;
+    private final long footerFingerprint;
+
+    private int bytesSaved = 0;
+    private boolean sidebarRendered = false;
+    private boolean sidebarVisible = false;
+    private String sidebarTitle;
+    private long sidebarTitleFingerprint = FingerprintUtil.NONE;
+    private String[] sidebarLines;
+    private long[] sidebarLineFingerprints;
+
+    public RenderResult(UUID uniqueId, String displayName, String header, String footer) {
+        this.uniqueId = uniqueId;
+        this.displayName = displayName;
+        this.displayNameFingerprint = displayName != null ? FingerprintUtil.of(displayName) : FingerprintUtil.NONE;
+        this.header = header;
+        this.headerFingerprint = header != null ? FingerprintUtil.of(header) : FingerprintUtil.NONE;
+        this.footer = footer;
+        this.footerFingerprint = footer != null ? FingerprintUtil.of(footer) : FingerprintUtil.NONE;
+    }
+
+    /**
+     * Attach a rendered sidebar, lines may contain null for left out entries
+     */
+    void setSidebar(boolean visible, String title, String[] lines) {
+        this.sidebarRendered = true;
+        this.sidebarVisible = visible;
+        if (!visible) {
+            return;
+        }
+
+        this.sidebarTitle = title;
+        this.sidebarTitleFingerprint = FingerprintUtil.of(title);
+        this.sidebarLines = lines;
+        this.sidebarLineFingerprints = new long[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            sidebarLineFingerprints[i] = FingerprintUtil.of(lines[i]);
+        }
+    }
+
+    void setBytesSaved(int bytesSaved) {
+        this.bytesSaved = bytesSaved;
+    }
+
+    public UUID getUniqueId() { return uniqueId; }
+
+    /**
+     * @return UTF-8 bytes removed by the color minifier for this player
+     */
+    public int getBytesSaved() { return bytesSaved; }
+
+    /**
+     * @return The rendered list name, or null if names were not part of this render
+     */
+    public String getDisplayName() { return displayName; }
+    public long getDisplayNameFingerprint() { return displayNameFingerprint; }
+
+    /**
+     * @return The rendered header, or null if header and footer were not part of this render
+     */
+    public String getHeader() { return header; }
+    public long getHeaderFingerprint() { return headerFingerprint; }
+    public String getFooter() { return footer; }
+    public long getFooterFingerprint() { return footerFingerprint; }
+
+    /**
+     * @return Whether the sidebar was part of this render
+     */
+    public boolean isSidebarRendered() { return sidebarRendered; }
+    public boolean isSidebarVisible() { return sidebarVisible; }
+    public String getSidebarTitle() { return sidebarTitle; }
+    public long getSidebarTitleFingerprint() { return sidebarTitleFingerprint; }
+    public String[] getSidebarLines() { return sidebarLines; }
+    public long[] getSidebarLineFingerprints() { return sidebarLineFingerprints; }
+}
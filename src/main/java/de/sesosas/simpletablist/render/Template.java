@@ -0,0 +1,368 @@
+package de.sesosas.simpletablist.render;
+
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
+import de.sesosas.simpletablist.placeholder.BuiltinPlaceholders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A text compiled once into literal parts, PlaceholderAPI tokens and text functions,
+ * so rendering never has to scan the text again.
+ * Supported functions: [#cap(text)], [#capall(text)], [#lower(text)], [#trim(text)], [#pad(text,width)] and
+ * [#lpad(text,width)]. The text of a function may contain %placeholders%, built-in placeholders and other functions.
+ * Functions whose text contains none of these are evaluated while compiling.
+ */
+public final class Template {
+
+    private static final int MAX_CACHED = 1024;
+    private static final Map<String, Template> cache = new ConcurrentHashMap<>();
+
+    public static final Template EMPTY = new Template("", new Object[0], new String[0]);
+
+    private final String source;
+    private final Object[] parts;   // String literals, Token or Function
+    private final String[] tokens;  // placeholders without the surrounding %, including those inside functions
+    private volatile String[] builtins;
+    private volatile long id = FingerprintUtil.NONE;
+
+    private Template(String source, Object[] parts, String[] tokens) {
+        this.source = source;
+        this.parts = parts;
+        this.tokens = tokens;
+    }
+
+    /**
+     * A %placeholder% inside a template
+     */
+    private static final class Token {
+        private final String name;
+
+        private Token(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * A [#function(text)] whose text contains placeholders or functions that are resolved while rendering
+     */
+    private static final class Function {
+        private final String name;
+        private final Object[] argument;
+        private final int width;
+
+        private Function(String name, Object[] argument, int width) {
+            this.name = name;
+            this.argument = argument;
+            this.width = width;
+        }
+
+        private String apply(String text) {
+            switch (name) {
+                case "cap":
+                    return text.isEmpty() ? text : text.substring(0, 1).toUpperCase() + text.substring(1);
+                case "capall":
+                    return text.toUpperCase();
+                case "lower":
+                    return text.toLowerCase();
+                case "trim":
+                    return text.trim();
+                case "pad":
+                    return pad(text, width, false);
+                case "lpad":
+                    return pad(text, width, true);
+                default:
+                    return text;
+            }
+        }
+    }
+
+    /**
+     * Get the compiled template for a text, compiling it on first use
+     * @return The template, or null if the text is null
+     */
+    public static Template compile(String source) {
+        if (source == null) {
+            return null;
+        }
+        if (source.isEmpty()) {
+            return EMPTY;
+        }
+
+        Template template = cache.get(source);
+        if (template == null) {
+            // Animated texts produce a new source per frame combination, keep the cache bounded
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            template = parse(source);
+            cache.put(source, template);
+        }
+        return template;
+    }
+
+    /**
+     * Compile a text without caching it, for one-off texts like already rendered output
+     * @return The template, or null if the text is null
+     */
+    public static Template parse(String source) {
+        if (source == null) {
+            return null;
+        }
+        if (source.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<String> tokens = new ArrayList<>();
+        return new Template(source, parse(source, 0, source.length(), tokens), tokens.toArray(new String[0]));
+    }
+
+    private static Object[] parse(String source, int from, int to, List<String> tokens) {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+
+        int i = from;
+        while (i < to) {
+            char c = source.charAt(i);
+
+            if (c == '%') {
+                int end = source.indexOf('%', i + 1);
+                if (end >= 0 && end < to) {
+                    flush(parts, literal);
+                    String name = source.substring(i + 1, end);
+                    parts.add(new Token(name));
+                    tokens.add(name);
+                    i = end + 1;
+                    continue;
+                }
+            } else if (c == '[' && i + 1 < to && source.charAt(i + 1) == '#') {
+                int end = parseFunction(source, i, to, parts, literal, tokens);
+                if (end > 0) {
+                    i = end;
+                    continue;
+                }
+            }
+
+            literal.append(c);
+            i++;
+        }
+
+        flush(parts, literal);
+        return parts.toArray();
+    }
+
+    /**
+     * Parse a [#name(text)] or [#name(text,width)] starting at the given index
+     * @return The index after the function, or -1 if there is no valid function
+     */
+    private static int parseFunction(String source, int start, int to, List<Object> parts, StringBuilder literal, List<String> tokens) {
+        int open = source.indexOf('(', start + 2);
+        if (open < 0 || open >= to) {
+            return -1;
+        }
+
+        String name = source.substring(start + 2, open).toLowerCase();
+        if (!isFunction(name)) {
+            return -1;
+        }
+
+        int close = findClose(source, open + 1, to);
+        if (close < 0) {
+            return -1;
+        }
+
+        int argumentEnd = close;
+        int width = 0;
+        if (name.equals("pad") || name.equals("lpad")) {
+            int comma = source.lastIndexOf(',', close);
+            if (comma <= open) {
+                return -1;
+            }
+            try {
+                width = Integer.parseInt(source.substring(comma + 1, close).trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            argumentEnd = comma;
+        }
+
+        List<String> argumentTokens = new ArrayList<>();
+        Object[] argument = parse(source, open + 1, argumentEnd, argumentTokens);
+        Function function = new Function(name, argument, width);
+
+        if (argumentTokens.isEmpty() && !hasFunction(argument)
+                && BuiltinPlaceholders.find(source.substring(open + 1, argumentEnd)).length == 0) {
+            // Nothing to resolve later, evaluate right away
+            literal.append(function.apply(build(argument, Collections.emptyMap())));
+        } else {
+            flush(parts, literal);
+            parts.add(function);
+            tokens.addAll(argumentTokens);
+        }
+
+        return close + 2;
+    }
+
+    /**
+     * Find the ")]" closing a function, skipping parentheses of nested functions and of the text
+     * @return The index of the ")", or -1 if the function is not closed before the end
+     */
+    private static int findClose(String source, int from, int to) {
+        int depth = 0;
+        for (int i = from; i < to; i++) {
+            char c = source.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                if (depth == 0 && i + 1 < to && source.charAt(i + 1) == ']') {
+                    return i;
+                }
+                depth = Math.max(0, depth - 1);
+            }
+        }
+        return -1;
+    }
+
+    private static boolean hasFunction(Object[] parts) {
+        for (Object part : parts) {
+            if (part instanceof Function) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFunction(String name) {
+        switch (name) {
+            case "cap":
+            case "capall":
+            case "lower":
+            case "trim":
+            case "pad":
+            case "lpad":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void flush(List<Object> parts, StringBuilder literal) {
+        if (literal.length() > 0) {
+            parts.add(literal.toString());
+            literal.setLength(0);
+        }
+    }
+
+    private static String pad(String text, int width, boolean left) {
+        if (text.length() >= width) {
+            return text;
+        }
+
+        StringBuilder builder = new StringBuilder(width);
+        if (!left) {
+            builder.append(text);
+        }
+        for (int i = text.length(); i < width; i++) {
+            builder.append(' ');
+        }
+        if (left) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Forget all compiled templates
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    /**
+     * Build the text with resolved placeholder values. Tokens without a value are kept as they are.
+     */
+    public String substitute(Map<String, String> values) {
+        return substitute(values, null);
+    }
+
+    /**
+     * Build the text with resolved placeholder values, applying built-in placeholders inside functions
+     * before the function itself. Built-ins outside of functions are left to the caller.
+     * @param snapshot Player data for built-ins inside functions, null to keep them as they are
+     */
+    public String substitute(Map<String, String> values, PlayerSnapshot snapshot) {
+        if (parts.length == 1 && parts[0] instanceof String) {
+            return (String) parts[0];
+        }
+        return build(parts, values, snapshot);
+    }
+
+    private static String build(Object[] parts, Map<String, String> values) {
+        return build(parts, values, null);
+    }
+
+    private static String build(Object[] parts, Map<String, String> values, PlayerSnapshot snapshot) {
+        StringBuilder builder = new StringBuilder();
+        append(builder, parts, values, snapshot);
+        return builder.toString();
+    }
+
+    private static void append(StringBuilder builder, Object[] parts, Map<String, String> values, PlayerSnapshot snapshot) {
+        for (Object part : parts) {
+            if (part instanceof String) {
+                builder.append((String) part);
+            } else if (part instanceof Token) {
+                String name = ((Token) part).name;
+                String value = values.get(name);
+                if (value != null) {
+                    builder.append(value);
+                } else {
+                    builder.append('%').append(name).append('%');
+                }
+            } else {
+                Function function = (Function) part;
+                String argument = build(function.argument, values, snapshot);
+                if (snapshot != null) {
+                    argument = BuiltinPlaceholders.apply(argument, snapshot);
+                }
+                builder.append(function.apply(argument));
+            }
+        }
+    }
+
+    public String getSource() { return source; }
+
+    /**
+     * @return PlaceholderAPI tokens in order of appearance, may contain duplicates
+     */
+    public String[] getTokens() { return tokens; }
+
+    public boolean hasPlaceholders() { return tokens.length > 0; }
+
+    /**
+     * @return Fingerprint of the source, identifies the template in the render memo
+     */
+    public long getId() {
+        long current = id;
+        if (current == FingerprintUtil.NONE) {
+            current = FingerprintUtil.of(source);
+            id = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return Built-in placeholders used by the template, as returned by BuiltinPlaceholders.find
+     */
+    public String[] getBuiltins() {
+        String[] current = builtins;
+        if (current == null) {
+            current = BuiltinPlaceholders.find(source);
+            builtins = current;
+        }
+        return current;
+    }
+}
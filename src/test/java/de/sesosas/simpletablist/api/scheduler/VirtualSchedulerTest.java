@@ -0,0 +1,74 @@
+package de.sesosas.simpletablist.api.scheduler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class VirtualSchedulerTest {
+
+    @Test
+    public void advanceRunsExactlyTheDueTasks() {
+        VirtualScheduler scheduler = new VirtualScheduler();
+        List<String> ran = new ArrayList<>();
+
+        scheduler.runGlobal(() -> ran.add("global@" + scheduler.getTick()));
+        scheduler.runGlobalLater(() -> ran.add("later@" + scheduler.getTick()), 3L);
+        scheduler.runGlobalTimer(() -> ran.add("timer@" + scheduler.getTick()), 2L, 4L);
+        scheduler.runAsync(() -> ran.add("async@" + scheduler.getTick()));
+        scheduler.runGlobalLater(() -> ran.add("cancelled"), 2L).cancel();
+
+        scheduler.advance(10);
+
+        assertEquals(Arrays.asList("global@1", "async@1", "timer@2", "later@3", "timer@6", "timer@10"), ran);
+        assertEquals(10L, scheduler.getTick());
+    }
+
+    @Test
+    public void tasksScheduledWhileRunningWaitForTheNextTick() {
+        VirtualScheduler scheduler = new VirtualScheduler();
+        List<Long> ticks = new ArrayList<>();
+
+        scheduler.runGlobal(() -> {
+            ticks.add(scheduler.getTick());
+            scheduler.runGlobal(() -> ticks.add(scheduler.getTick()));
+        });
+
+        scheduler.advance(1);
+        assertEquals(Arrays.asList(1L), ticks);
+
+        scheduler.advance(1);
+        assertEquals(Arrays.asList(1L, 2L), ticks);
+    }
+
+    @Test
+    public void cancelledTimerStopsRunning() {
+        VirtualScheduler scheduler = new VirtualScheduler();
+        AtomicInteger runs = new AtomicInteger();
+
+        PlatformScheduler.Task task = scheduler.runGlobalTimer(runs::incrementAndGet, 1L, 1L);
+        scheduler.advance(5);
+        task.cancel();
+        scheduler.advance(5);
+
+        assertEquals(5, runs.get());
+        assertEquals(0, scheduler.getPendingTasks());
+    }
+
+    @Test
+    public void clockMovesWithTheTicks() {
+        VirtualScheduler scheduler = new VirtualScheduler(1_000L);
+        long nanos = scheduler.nanoTime();
+
+        scheduler.advance(3);
+        assertEquals(1_150L, scheduler.currentTimeMillis());
+        assertEquals(150_000_000L, scheduler.nanoTime() - nanos);
+
+        scheduler.advanceMillis(120);
+        assertEquals(6L, scheduler.getTick());
+    }
+}
@@ -0,0 +1,29 @@
+package de.sesosas.simpletablist.api.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class FingerprintUtilTest {
+
+    private static long values(String... values) {
+        long hash = FingerprintUtil.EMPTY;
+        for (String value : values) {
+            hash = FingerprintUtil.appendValue(hash, value);
+        }
+        return hash;
+    }
+
+    @Test
+    public void adjacentValuesDoNotRunIntoEachOther() {
+        assertNotEquals(values("1", "23"), values("12", "3"));
+        assertNotEquals(values("", "a"), values("a", ""));
+        assertNotEquals(values(null, "a"), values("", "a"));
+    }
+
+    @Test
+    public void equalValuesGiveEqualFingerprints() {
+        assertEquals(values("1", "23"), values("1", "23"));
+    }
+}
@@ -0,0 +1,25 @@
+package de.sesosas.simpletablist.placeholder;
+
+import de.sesosas.simpletablist.api.utils.FingerprintUtil;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotEquals;
+
+public class BuiltinPlaceholdersTest {
+
+    @Test
+    public void adjacentValuesDoNotRunIntoEachOther() {
+        // Echoes its argument, so the values are known without a player
+        BuiltinPlaceholders.register("test_echo", (snapshot, argument, out) -> {
+            out.append(argument);
+            return true;
+        });
+
+        long first = BuiltinPlaceholders.fingerprint(FingerprintUtil.EMPTY, "test_echo:1", null);
+        first = BuiltinPlaceholders.fingerprint(first, "test_echo:23", null);
+        long second = BuiltinPlaceholders.fingerprint(FingerprintUtil.EMPTY, "test_echo:12", null);
+        second = BuiltinPlaceholders.fingerprint(second, "test_echo:3", null);
+
+        assertNotEquals(first, second);
+    }
+}